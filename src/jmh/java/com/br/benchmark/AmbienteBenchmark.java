@@ -0,0 +1,121 @@
+package com.br.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.AprendizadoBackend2Application;
+import com.br.gerador.GeradorInventario;
+import com.br.gerador.ParametrosGeracao;
+import com.br.service.ProdutoService;
+import com.br.service.UsuarioService;
+
+// Aplicação completa (sem servidor web) sobre um H2 em arquivo no modo PostgreSQL, com
+// "linhas" produtos e usuários gerados pelo GeradorInventario. O banco é criado e preenchido por um primeiro contexto
+// e a aplicação medida sobe num segundo, para que as estruturas em memória carregadas na
+// inicialização (contadores, registros de referência, filtros de Bloom) já vejam os dados.
+// Em arquivo porque o Spring Boot fecha bancos H2 em memória junto com o contexto.
+@State(Scope.Benchmark)
+public class AmbienteBenchmark {
+
+	private static final String LOTE = "bench";
+
+	// Abaixo do pool padrão do Hikari (10 conexões)
+	private static final int THREADS_GERACAO = 4;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int linhas;
+
+	private Path diretorio;
+
+	private ConfigurableApplicationContext contexto;
+
+	private long[] idsProdutos;
+
+	private ProdutoService produtoService;
+
+	private UsuarioService usuarioService;
+
+	@Setup(Level.Trial)
+	public void iniciar() throws IOException {
+		diretorio = Files.createTempDirectory("benchmark-inventario");
+		String url = "jdbc:h2:file:" + diretorio.resolve("banco").toAbsolutePath()
+				+ ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+		try (ConfigurableApplicationContext carga = iniciarContexto(url, "create")) {
+			popular(carga.getBean(JdbcTemplate.class));
+		}
+
+		contexto = iniciarContexto(url, "none");
+		idsProdutos = contexto.getBean(JdbcTemplate.class)
+				.queryForList("SELECT id FROM produtos WHERE ativo ORDER BY id", Long.class)
+				.stream().mapToLong(Long::longValue).toArray();
+		produtoService = contexto.getBean(ProdutoService.class);
+		usuarioService = contexto.getBean(UsuarioService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() throws IOException {
+		contexto.close();
+		try (Stream<Path> arquivos = Files.walk(diretorio)) {
+			for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(arquivo);
+			}
+		}
+	}
+
+	public ProdutoService produtoService() {
+		return produtoService;
+	}
+
+	public UsuarioService usuarioService() {
+		return usuarioService;
+	}
+
+	public long idProduto(int indice) {
+		return idsProdutos[Math.floorMod(indice, idsProdutos.length)];
+	}
+
+	// ============ MÉTODOS AUXILIARES ============
+
+	private static ConfigurableApplicationContext iniciarContexto(String url, String ddlAuto) {
+		// Argumentos de linha de comando: precedem o application.properties (banco PostgreSQL)
+		return new SpringApplicationBuilder(AprendizadoBackend2Application.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=" + url,
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+						"--spring.jpa.show-sql=false",
+						"--spring.sql.init.mode=never",
+						"--inventario.busca.trigram.habilitado=false",
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=WARN");
+	}
+
+	// Mesma massa do GeradorInventario usada no teste de carga (lote "bench": códigos PAT-bench-N,
+	// matrículas Mbench-N). Cada produto ganha 1.000.000 de unidades, mantendo os emprestados
+	// gerados, para que os empréstimos medidos não esgotem o estoque durante a execução
+	private void popular(JdbcTemplate jdbc) {
+		new GeradorInventario(jdbc).gerar(new ParametrosGeracao(linhas, linhas, 40, Math.max(20, linhas / 500), 50,
+				linhas / 2, THREADS_GERACAO, 42L, LOTE));
+		jdbc.update("UPDATE produtos SET quantidade_total = quantidade_total + 1000000, "
+				+ "quantidade_disponivel = quantidade_disponivel + 1000000");
+	}
+}
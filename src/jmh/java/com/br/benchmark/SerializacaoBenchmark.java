@@ -0,0 +1,106 @@
+package com.br.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.br.dto.ProdutoResumo;
+import com.br.model.Categoria;
+import com.br.model.Localizacao;
+import com.br.model.Marca;
+import com.br.model.Produto;
+
+import tools.jackson.databind.ObjectMapper;
+
+// Serialização das respostas de /api/produtos com o ObjectMapper configurado pelo Spring Boot:
+// detalhe (Produto com categoria, marca e localização) e resumo das listagens. Não usa banco.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int tamanhoLista;
+
+	private ConfigurableApplicationContext contexto;
+
+	private ObjectMapper objectMapper;
+
+	private List<Produto> produtos;
+
+	private List<ProdutoResumo> resumos;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off", "--logging.level.root=WARN");
+		objectMapper = contexto.getBean(ObjectMapper.class);
+
+		Categoria categoria = new Categoria("Notebook", true);
+		categoria.setId(1L);
+		Marca marca = new Marca();
+		marca.setId(1L);
+		marca.setNome("Dell");
+		Localizacao localizacao = new Localizacao();
+		localizacao.setId(1L);
+		localizacao.setNome("Almoxarifado");
+
+		produtos = new ArrayList<>(tamanhoLista);
+		resumos = new ArrayList<>(tamanhoLista);
+		for (int i = 1; i <= tamanhoLista; i++) {
+			Produto produto = new Produto("Notebook Dell Latitude " + i, String.format("PAT-%07d", i), categoria);
+			produto.setId((long) i);
+			produto.setNumeroSerie(String.format("SN-%07d", i));
+			produto.setMarca(marca);
+			produto.setModelo("Latitude 5420");
+			produto.setLocalizacao(localizacao);
+			produto.setQuantidadeTotal(3);
+			produto.setQuantidadeDisponivel(2);
+			produto.setEstadoConservacao("BOM");
+			produto.setDescricao("Notebook para uso da equipe de desenvolvimento");
+			produto.setDataAquisicao(LocalDateTime.of(2024, 3, 15, 10, 0));
+			produtos.add(produto);
+			resumos.add(new ProdutoResumo(produto.getId(), produto.getNome(), produto.getCodigo(),
+					produto.getModelo(), categoria.getNome(), marca.getNome(), localizacao.getNome(),
+					3, 2, "BOM", true));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public byte[] serializarProdutos() {
+		return objectMapper.writeValueAsBytes(produtos);
+	}
+
+	@Benchmark
+	public byte[] serializarResumos() {
+		return objectMapper.writeValueAsBytes(resumos);
+	}
+}
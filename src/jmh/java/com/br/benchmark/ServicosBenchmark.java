@@ -0,0 +1,57 @@
+package com.br.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.br.dto.ProdutoResumo;
+import com.br.dto.TotaisInventario;
+import com.br.model.Produto;
+import com.br.model.Usuario;
+
+// Caminhos quentes dos serviços com a aplicação e o banco reais (ver AmbienteBenchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx4g" })
+public class ServicosBenchmark {
+
+	// Termos sobre a massa do GeradorInventario (lote "bench" do AmbienteBenchmark)
+	private static final String[] TERMOS_PRODUTO = { "dell", "thinkpad", "PAT-bench-1", "mx master", "notebook" };
+
+	private static final String[] TERMOS_USUARIO = { "silva", "ana", "ana.silva.", "Mbench-1", "santos" };
+
+	@Benchmark
+	public List<ProdutoResumo> produtoBuscarPorTermo(AmbienteBenchmark ambiente) {
+		return ambiente.produtoService().buscarPorTermo(termo(TERMOS_PRODUTO), 20);
+	}
+
+	@Benchmark
+	public Produto produtoRegistrarEmprestimo(AmbienteBenchmark ambiente) {
+		long id = ambiente.idProduto(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+		return ambiente.produtoService().registrarEmprestimo(id, 1);
+	}
+
+	@Benchmark
+	public TotaisInventario produtoObterContagemTotalItens(AmbienteBenchmark ambiente) {
+		return ambiente.produtoService().obterContagemTotalItens();
+	}
+
+	@Benchmark
+	public List<Usuario> usuarioBuscarPorTermo(AmbienteBenchmark ambiente) {
+		return ambiente.usuarioService().buscarPorTermo(termo(TERMOS_USUARIO), 20);
+	}
+
+	private static String termo(String[] termos) {
+		return termos[ThreadLocalRandom.current().nextInt(termos.length)];
+	}
+}
@@ -0,0 +1,74 @@
+package com.br;
+
+import com.br.gerador.GeradorInventario;
+import com.br.gerador.ParametrosGeracao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Ponto de entrada do gerador de massa de dados (perfil "gerador", ver application-gerador.properties):
+// sobe a aplicação sem servidor web, grava os volumes configurados e encerra o processo.
+@Component
+@Profile("gerador")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class GeradorDados implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorDados.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Value("${gerador.produtos:1000000}")
+    private int produtos;
+
+    @Value("${gerador.usuarios:200000}")
+    private int usuarios;
+
+    @Value("${gerador.categorias:40}")
+    private int categorias;
+
+    @Value("${gerador.marcas:2000}")
+    private int marcas;
+
+    @Value("${gerador.localizacoes:300}")
+    private int localizacoes;
+
+    @Value("${gerador.emprestimos:300000}")
+    private int emprestimos;
+
+    @Value("${gerador.threads:8}")
+    private int threads;
+
+    @Value("${gerador.semente:42}")
+    private long semente;
+
+    @Override
+    public void run(String... args) {
+        // Sufixo da execução nos valores únicos: rodadas repetidas acumulam dados sem colisões
+        String lote = Long.toString(System.currentTimeMillis() / 1000, 36);
+        ParametrosGeracao parametros = new ParametrosGeracao(produtos, usuarios, categorias, marcas,
+                localizacoes, emprestimos, threads, semente, lote);
+        log.info("Gerando massa de dados (lote {}): {}", lote, parametros);
+
+        long inicio = System.nanoTime();
+        new GeradorInventario(jdbcTemplate).gerar(parametros);
+        log.info("Massa de dados gerada em {} s", (System.nanoTime() - inicio) / 1_000_000_000);
+        // Gravado por JDBC: servidores já em execução só enxergam os valores novos nas verificações
+        // de duplicidade depois de reconstruir os filtros de Bloom
+        log.info("Servidores em execução: POST /actuator/filtros para reconstruir os filtros de Bloom");
+
+        System.exit(SpringApplication.exit(contexto));
+    }
+}
@@ -0,0 +1,33 @@
+package com.br.config;
+
+import com.br.dto.ConsultaSql;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// /actuator/consultas: comandos SQL ordenados pelo tempo total (GET ?limite=20);
+// DELETE zera as estatísticas para medir um intervalo
+@Component
+@Endpoint(id = "consultas")
+public class ConsultasEndpoint {
+
+    private static final int LIMITE_PADRAO = 20;
+
+    @Autowired
+    private EstatisticasSql estatisticasSql;
+
+    @ReadOperation
+    public List<ConsultaSql> ranking(@Nullable Integer limite) {
+        return estatisticasSql.ranking(limite == null || limite <= 0 ? LIMITE_PADRAO : limite);
+    }
+
+    @DeleteOperation
+    public void limpar() {
+        estatisticasSql.limpar();
+    }
+}
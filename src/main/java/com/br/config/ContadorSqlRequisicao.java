@@ -0,0 +1,84 @@
+package com.br.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Comandos SQL preparados pelo Hibernate em cada requisição /api: o StatementInspector conta na
+// thread da requisição e o filtro publica a distribuição inventario.sql.por-requisicao (tags
+// metodo e uri, com histograma). Requisições acima de inventario.sql.alerta-por-requisicao
+// comandos (tipicamente N+1) também vão para o log.
+@Component
+public class ContadorSqlRequisicao extends OncePerRequestFilter
+        implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorSqlRequisicao.class);
+
+    private static final ThreadLocal<int[]> CONTAGEM = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final int alerta;
+
+    public ContadorSqlRequisicao(MeterRegistry meterRegistry,
+                                 @Value("${inventario.sql.alerta-por-requisicao:50}") int alerta) {
+        this.meterRegistry = meterRegistry;
+        this.alerta = alerta;
+    }
+
+    @Override
+    public void customize(Map<String, Object> propriedades) {
+        propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] contagem = CONTAGEM.get();
+        if (contagem != null) {
+            contagem[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int[] contagem = new int[1];
+        CONTAGEM.set(contagem);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CONTAGEM.remove();
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = padrao == null ? "desconhecida" : padrao.toString();
+            DistributionSummary.builder("inventario.sql.por-requisicao")
+                .baseUnit("comandos")
+                .tags("metodo", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(contagem[0]);
+            if (contagem[0] > alerta) {
+                log.warn("sql.excesso metodo={} uri={} comandos={}", request.getMethod(), uri, contagem[0]);
+            }
+        }
+    }
+}
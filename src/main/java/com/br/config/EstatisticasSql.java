@@ -0,0 +1,61 @@
+package com.br.config;
+
+import com.br.dto.ConsultaSql;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Execuções, tempo total e tempo máximo por comando SQL, alimentados pelo MonitorSql e
+// expostos por tempo total em /actuator/consultas. A chave é o texto exato do comando
+// (com "?" no lugar dos parâmetros); acima de MAXIMO_COMANDOS textos distintos, os novos
+// são somados numa única entrada para que comandos gerados não façam o mapa crescer sem limite.
+@Component
+public class EstatisticasSql {
+
+    private static final int MAXIMO_COMANDOS = 1_000;
+    private static final String DEMAIS = "(demais comandos)";
+
+    private final Map<String, Acumulador> porComando = new ConcurrentHashMap<>();
+
+    void registrar(String sql, long nanos) {
+        Acumulador acumulador = porComando.get(sql);
+        if (acumulador == null) {
+            String chave = porComando.size() < MAXIMO_COMANDOS ? sql : DEMAIS;
+            acumulador = porComando.computeIfAbsent(chave, c -> new Acumulador());
+        }
+        acumulador.execucoes.increment();
+        acumulador.totalNanos.add(nanos);
+        acumulador.maximoNanos.accumulate(nanos);
+    }
+
+    // Comandos ordenados pelo tempo total, do maior para o menor
+    public List<ConsultaSql> ranking(int limite) {
+        return porComando.entrySet().stream()
+            .map(entrada -> resumo(entrada.getKey(), entrada.getValue()))
+            .sorted(Comparator.comparingDouble(ConsultaSql::totalMs).reversed())
+            .limit(limite)
+            .toList();
+    }
+
+    public void limpar() {
+        porComando.clear();
+    }
+
+    private static ConsultaSql resumo(String sql, Acumulador acumulador) {
+        long execucoes = acumulador.execucoes.sum();
+        double totalMs = acumulador.totalNanos.sum() / 1_000_000.0;
+        return new ConsultaSql(sql.replaceAll("\\s+", " ").trim(), execucoes, totalMs,
+            execucoes == 0 ? 0 : totalMs / execucoes, acumulador.maximoNanos.get() / 1_000_000.0);
+    }
+
+    private static final class Acumulador {
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.br.config;
+
+import com.br.service.FiltrosExistencia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// POST /actuator/filtros: reconstrói os filtros de Bloom na hora, depois de uma carga feita
+// direto no banco (GeradorDados, scripts) por outro processo, sem esperar a reconstrução periódica
+@Component
+@Endpoint(id = "filtros")
+public class FiltrosEndpoint {
+
+    @Autowired
+    private FiltrosExistencia filtrosExistencia;
+
+    @WriteOperation
+    public void reconstruir() {
+        filtrosExistencia.reconstruir();
+    }
+}
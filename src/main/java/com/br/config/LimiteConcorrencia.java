@@ -0,0 +1,134 @@
+package com.br.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limite de requisições /api simultâneas, coordenado com o pool de conexões. Com threads virtuais
+// o Tomcat não tem mais teto de threads: sem o limite, uma rajada vira milhares de threads
+// esperando conexão no Hikari até o connection-timeout. Com ele, o excedente espera aqui
+// (sem prender carrier) e, passado o tempo máximo, recebe 503 em vez de ocupar o pool.
+// Limite padrão: conexões do pool x inventario.concorrencia.requisicoes-por-conexao, pois
+// parte das requisições é atendida em memória (caches, registros, contadores).
+// Respostas assíncronas (StreamingResponseBody, exportação NDJSON) seguram a permissão até o fim
+// do processamento assíncrono, não só até a volta da thread do container.
+// Métricas: inventario.concorrencia.em-andamento e inventario.concorrencia.rejeitadas.
+@Component
+public class LimiteConcorrencia extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteConcorrencia.class);
+
+    private final boolean habilitado;
+    private final long esperaMs;
+    private final Semaphore permissoes;
+    private final Counter rejeitadas;
+
+    public LimiteConcorrencia(MeterRegistry meterRegistry,
+                              @Value("${inventario.concorrencia.habilitado:false}") boolean habilitado,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexoesPool,
+                              @Value("${inventario.concorrencia.limite:0}") int limite,
+                              @Value("${inventario.concorrencia.requisicoes-por-conexao:2}") int requisicoesPorConexao,
+                              @Value("${inventario.concorrencia.espera-ms:2000}") long esperaMs) {
+        this.habilitado = habilitado;
+        this.esperaMs = esperaMs;
+        int maximo = limite > 0 ? limite : conexoesPool * requisicoesPorConexao;
+        this.permissoes = new Semaphore(maximo, true);
+        this.rejeitadas = meterRegistry.counter("inventario.concorrencia.rejeitadas");
+        if (habilitado) {
+            Gauge.builder("inventario.concorrencia.em-andamento", permissoes, s -> maximo - s.availablePermits())
+                .register(meterRegistry);
+            log.info("Limite de requisições simultâneas: {} (pool de {} conexões)", maximo, conexoesPool);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean obtida;
+        try {
+            obtida = permissoes.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obtida = false;
+        }
+        if (!obtida) {
+            rejeitadas.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"erro\":\"Servidor ocupado, tente novamente\"}");
+            return;
+        }
+        boolean assincrona = false;
+        try {
+            chain.doFilter(request, response);
+            assincrona = request.isAsyncStarted();
+        } finally {
+            if (assincrona) {
+                // Ainda dentro do dispatch original: um complete() feito por outra thread só é
+                // efetivado depois que ele retorna, então o listener não perde o evento
+                request.getAsyncContext().addListener(new LiberacaoAssincrona());
+            } else {
+                permissoes.release();
+            }
+        }
+    }
+
+    // Devolve a permissão uma única vez, no primeiro evento de fim (complete, erro ou timeout)
+    private final class LiberacaoAssincrona implements AsyncListener {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent evento) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent evento) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent evento) {
+            liberar();
+        }
+
+        // Novo startAsync no mesmo pedido (ex.: redispatch) descarta os listeners: registra de novo
+        @Override
+        public void onStartAsync(AsyncEvent evento) {
+            evento.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                permissoes.release();
+            }
+        }
+    }
+}
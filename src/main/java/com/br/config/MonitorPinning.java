@@ -0,0 +1,105 @@
+package com.br.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Diagnóstico de pinning das threads virtuais: uma thread virtual que bloqueia dentro de um
+// synchronized (ou de código nativo) fica presa à thread carrier, e poucas bastam para travar
+// o servidor. Um stream JFR recebe os eventos jdk.VirtualThreadPinned acima do limite e os
+// publica como o timer inventario.threads.virtuais.pinning (tag origem: primeiro método da
+// aplicação na pilha), com a pilha no log. O evento só existe a partir do Java 21; antes disso
+// o monitor não inicia. Sem JFR, -Djdk.tracePinnedThreads=full imprime as pilhas no stdout.
+@Component
+public class MonitorPinning {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorPinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final Duration limite;
+    private RecordingStream stream;
+
+    public MonitorPinning(MeterRegistry meterRegistry,
+                          @Value("${inventario.pinning.monitor.habilitado:false}") boolean habilitado,
+                          @Value("${inventario.pinning.limite-ms:20}") long limiteMs) {
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.limite = Duration.ofMillis(limiteMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        if (Runtime.version().feature() < 21) {
+            log.warn("Monitor de pinning requer Java 21+ (em execução: {})", Runtime.version());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Monitor de pinning ativo (limite {} ms)", limite.toMillis());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void registrar(RecordedEvent evento) {
+        String origem = origem(evento.getStackTrace());
+        meterRegistry.timer("inventario.threads.virtuais.pinning", "origem", origem).record(evento.getDuration());
+        if (log.isWarnEnabled()) {
+            log.warn("Thread virtual presa à carrier por {} ms em {}:{}", evento.getDuration().toMillis(), origem,
+                    pilha(evento.getStackTrace()));
+        }
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private static String origem(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "desconhecida";
+        }
+        for (RecordedFrame frame : pilha.getFrames()) {
+            RecordedMethod metodo = frame.getMethod();
+            if (metodo != null && metodo.getType().getName().startsWith("com.br.")) {
+                String classe = metodo.getType().getName();
+                return classe.substring(classe.lastIndexOf('.') + 1) + "." + metodo.getName();
+            }
+        }
+        return "externa";
+    }
+
+    private static String pilha(RecordedStackTrace pilha) {
+        StringBuilder texto = new StringBuilder();
+        if (pilha != null) {
+            for (RecordedFrame frame : pilha.getFrames()) {
+                RecordedMethod metodo = frame.getMethod();
+                if (metodo != null) {
+                    texto.append("\n\tat ").append(metodo.getType().getName()).append('.').append(metodo.getName())
+                        .append(':').append(frame.getLineNumber());
+                }
+            }
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,227 @@
+package com.br.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Substitui o spring.jpa.show-sql: envolve o DataSource e mede cada execução de comando JDBC
+// (JPA e JdbcTemplate). Comandos acima de inventario.sql.lento-ms vão para o log com os
+// parâmetros; dos demais, só a fração inventario.sql.amostragem. Todos alimentam as
+// EstatisticasSql (/actuator/consultas). Linhas de log em chave=valor para facilitar a busca.
+// Como BeanPostProcessor é criado antes dos demais beans: as EstatisticasSql só são resolvidas
+// no primeiro comando, para não serem instanciadas cedo e ficarem fora do pós-processamento.
+@Component
+public class MonitorSql implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorSql.class);
+
+    private static final int MAXIMO_PARAMETROS_LOG = 30;
+    private static final int MAXIMO_TAMANHO_VALOR = 100;
+
+    private final ObjectProvider<EstatisticasSql> provedorEstatisticas;
+    private final boolean habilitado;
+    private final long lentoNanos;
+    private final double amostragem;
+    private volatile EstatisticasSql estatisticasSql;
+
+    public MonitorSql(ObjectProvider<EstatisticasSql> provedorEstatisticas,
+                      @Value("${inventario.sql.monitor.habilitado:false}") boolean habilitado,
+                      @Value("${inventario.sql.lento-ms:200}") long lentoMs,
+                      @Value("${inventario.sql.amostragem:0}") double amostragem) {
+        this.provedorEstatisticas = provedorEstatisticas;
+        this.habilitado = habilitado;
+        this.lentoNanos = lentoMs * 1_000_000;
+        this.amostragem = amostragem;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (habilitado && bean instanceof DataSource dataSource && !(bean instanceof DataSourceMonitorado)) {
+            return new DataSourceMonitorado(dataSource);
+        }
+        return bean;
+    }
+
+    // ============ PROXIES JDBC ============
+
+    // unwrap/isWrapperFor (métricas e health do Hikari) continuam chegando ao pool real
+    private final class DataSourceMonitorado extends DelegatingDataSource {
+
+        private DataSourceMonitorado(DataSource alvo) {
+            super(alvo);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return conexao(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String senha) throws SQLException {
+            return conexao(super.getConnection(usuario, senha));
+        }
+    }
+
+    private Connection conexao(Connection alvo) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, metodo, args) -> {
+                if (metodo.getDeclaringClass() == Object.class) {
+                    return metodoObject(proxy, alvo, metodo, args);
+                }
+                Object resultado = invocar(alvo, metodo, args);
+                if (resultado instanceof CallableStatement chamada) {
+                    return comando(chamada, (String) args[0], CallableStatement.class);
+                }
+                if (resultado instanceof PreparedStatement preparado) {
+                    return comando(preparado, (String) args[0], PreparedStatement.class);
+                }
+                if (resultado instanceof Statement statement) {
+                    return comando(statement, null, Statement.class);
+                }
+                return resultado;
+            });
+    }
+
+    private Statement comando(Statement alvo, String sql, Class<? extends Statement> tipo) {
+        return (Statement) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+            new ComandoMonitorado(alvo, sql));
+    }
+
+    // Um por Statement (usado por uma thread de cada vez, como o próprio Statement):
+    // guarda os parâmetros ligados e mede as chamadas execute*
+    private final class ComandoMonitorado implements InvocationHandler {
+
+        private final Statement alvo;
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+        private String sql;
+        private int lote;
+
+        private ComandoMonitorado(Statement alvo, String sql) {
+            this.alvo = alvo;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (metodo.getDeclaringClass() == Object.class) {
+                return metodoObject(proxy, alvo, metodo, args);
+            }
+            String nome = metodo.getName();
+            if (nome.startsWith("execute")) {
+                String comando = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql;
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(alvo, metodo, args);
+                } finally {
+                    registrar(comando, System.nanoTime() - inicio, parametros, nome.endsWith("Batch") ? lote : 0);
+                    if (nome.endsWith("Batch")) {
+                        lote = 0;
+                    }
+                }
+            }
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                parametros.put(indice, nome.equals("setNull") ? null : args[1]);
+            } else if (nome.equals("clearParameters")) {
+                parametros.clear();
+            } else if (nome.equals("addBatch")) {
+                lote++;
+                if (args != null && args.length == 1 && args[0] instanceof String texto) {
+                    sql = texto;
+                }
+            }
+            return invocar(alvo, metodo, args);
+        }
+    }
+
+    // ============ REGISTRO ============
+
+    private void registrar(String sql, long nanos, Map<Integer, Object> parametros, int lote) {
+        if (sql == null) {
+            return;
+        }
+        estatisticas().registrar(sql, nanos);
+        if (nanos >= lentoNanos) {
+            log.warn("sql.lento duracao_ms={} lote={} parametros={} sql=\"{}\"", nanos / 1_000_000, lote,
+                formatar(parametros), compactar(sql));
+        } else if (amostragem > 0 && ThreadLocalRandom.current().nextDouble() < amostragem && log.isInfoEnabled()) {
+            log.info("sql.amostra duracao_ms={} lote={} parametros={} sql=\"{}\"",
+                String.format("%.3f", nanos / 1_000_000.0), lote, formatar(parametros), compactar(sql));
+        }
+    }
+
+    private EstatisticasSql estatisticas() {
+        EstatisticasSql estatisticas = estatisticasSql;
+        if (estatisticas == null) {
+            estatisticas = provedorEstatisticas.getObject();
+            estatisticasSql = estatisticas;
+        }
+        return estatisticas;
+    }
+
+    private static String formatar(Map<Integer, Object> parametros) {
+        StringJoiner texto = new StringJoiner(", ", "[", "]");
+        int mostrados = 0;
+        for (Map.Entry<Integer, Object> parametro : parametros.entrySet()) {
+            if (mostrados++ == MAXIMO_PARAMETROS_LOG) {
+                texto.add("... +" + (parametros.size() - MAXIMO_PARAMETROS_LOG));
+                break;
+            }
+            texto.add(parametro.getKey() + "=" + valor(parametro.getValue()));
+        }
+        return texto.toString();
+    }
+
+    private static String valor(Object valor) {
+        if (valor == null) {
+            return "NULL";
+        }
+        if (valor instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String texto = String.valueOf(valor);
+        if (texto.length() > MAXIMO_TAMANHO_VALOR) {
+            texto = texto.substring(0, MAXIMO_TAMANHO_VALOR) + "...";
+        }
+        return valor instanceof CharSequence ? "'" + texto + "'" : texto;
+    }
+
+    private static String compactar(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    // Igualdade por identidade do proxy: o Hibernate guarda os statements em mapas
+    private static Object metodoObject(Object proxy, Object alvo, Method metodo, Object[] args) throws Throwable {
+        return switch (metodo.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> invocar(alvo, metodo, args);
+        };
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
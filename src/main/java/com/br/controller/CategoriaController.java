@@ -46,12 +46,8 @@ public class CategoriaController {
     @PutMapping("/{id}")
     public ResponseEntity<Categoria> update(@PathVariable Long id, 
                                            @RequestBody Categoria categoria) {
-        try {
-            Categoria updated = categoriaService.update(id, categoria);
-            return ResponseEntity.ok(updated);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Categoria updated = categoriaService.update(id, categoria);
+        return ResponseEntity.ok(updated);
     }
     
     @DeleteMapping("/{id}")
@@ -8,7 +8,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -59,62 +58,39 @@ public class LocalizacaoController {
     // POST - Criar nova localização
     @PostMapping
     public ResponseEntity<?> criarLocalizacao(@RequestBody Localizacao localizacao) {
-        try {
-            Localizacao novaLocalizacao = localizacaoService.save(localizacao);
-            return ResponseEntity.status(HttpStatus.CREATED).body(novaLocalizacao);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("erro", "Erro ao criar localização"));
-        }
+        Localizacao novaLocalizacao = localizacaoService.save(localizacao);
+        return ResponseEntity.status(HttpStatus.CREATED).body(novaLocalizacao);
     }
     
     // PUT - Atualizar localização
     @PutMapping("/{id}")
     public ResponseEntity<?> atualizarLocalizacao(@PathVariable Long id, @RequestBody Localizacao localizacaoDetails) {
-        try {
-            Localizacao localizacaoAtualizada = localizacaoService.update(id, localizacaoDetails);
-            return ResponseEntity.ok(localizacaoAtualizada);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("erro", "Erro ao atualizar localização"));
-        }
+        Localizacao localizacaoAtualizada = localizacaoService.update(id, localizacaoDetails);
+        return ResponseEntity.ok(localizacaoAtualizada);
     }
     
     // DELETE - Excluir localização (físico)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluirLocalizacao(@PathVariable Long id) {
-        try {
-            localizacaoService.delete(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        localizacaoService.delete(id);
+        return ResponseEntity.noContent().build();
     }
     
     // DELETE - Desativar localização (soft delete)
     @DeleteMapping("/{id}/desativar")
     public ResponseEntity<Void> desativarLocalizacao(@PathVariable Long id) {
-        try {
-            localizacaoService.softDelete(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        localizacaoService.softDelete(id);
+        return ResponseEntity.noContent().build();
     }
     
     // POST - Ativar localização
     @PostMapping("/{id}/ativar")
     public ResponseEntity<Localizacao> ativarLocalizacao(@PathVariable Long id) {
-        return localizacaoService.findById(id)
-                .map(localizacao -> {
-                    localizacao.setAtivo(true);
-                    Localizacao localizacaoAtivada = localizacaoService.save(localizacao);
-                    return ResponseEntity.ok(localizacaoAtivada);
-                })
-                .orElse(ResponseEntity.notFound().build());
+        if (localizacaoService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // As instâncias do registro em memória são compartilhadas: a alteração é feita pelo serviço
+        localizacaoService.reativar(id);
+        return ResponseEntity.ok(localizacaoService.findById(id).orElseThrow());
     }
 }
\ No newline at end of file
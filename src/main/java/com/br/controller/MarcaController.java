@@ -8,7 +8,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -59,62 +58,39 @@ public class MarcaController {
     // POST - Criar nova marca
     @PostMapping
     public ResponseEntity<?> criarMarca(@RequestBody Marca marca) {
-        try {
-            Marca novaMarca = marcaService.save(marca);
-            return ResponseEntity.status(HttpStatus.CREATED).body(novaMarca);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("erro", "Erro ao criar marca"));
-        }
+        Marca novaMarca = marcaService.save(marca);
+        return ResponseEntity.status(HttpStatus.CREATED).body(novaMarca);
     }
     
     // PUT - Atualizar marca
     @PutMapping("/{id}")
     public ResponseEntity<?> atualizarMarca(@PathVariable Long id, @RequestBody Marca marcaDetails) {
-        try {
-            Marca marcaAtualizada = marcaService.update(id, marcaDetails);
-            return ResponseEntity.ok(marcaAtualizada);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("erro", "Erro ao atualizar marca"));
-        }
+        Marca marcaAtualizada = marcaService.update(id, marcaDetails);
+        return ResponseEntity.ok(marcaAtualizada);
     }
     
     // DELETE - Excluir marca (físico)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluirMarca(@PathVariable Long id) {
-        try {
-            marcaService.delete(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        marcaService.delete(id);
+        return ResponseEntity.noContent().build();
     }
     
     // DELETE - Desativar marca (soft delete)
     @DeleteMapping("/{id}/desativar")
     public ResponseEntity<Void> desativarMarca(@PathVariable Long id) {
-        try {
-            marcaService.softDelete(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        marcaService.softDelete(id);
+        return ResponseEntity.noContent().build();
     }
     
     // POST - Ativar marca
     @PostMapping("/{id}/ativar")
     public ResponseEntity<Marca> ativarMarca(@PathVariable Long id) {
-        return marcaService.findById(id)
-                .map(marca -> {
-                    marca.setAtivo(true);
-                    Marca marcaAtivada = marcaService.save(marca);
-                    return ResponseEntity.ok(marcaAtivada);
-                })
-                .orElse(ResponseEntity.notFound().build());
+        if (marcaService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // As instâncias do registro em memória são compartilhadas: a alteração é feita pelo serviço
+        marcaService.reativar(id);
+        return ResponseEntity.ok(marcaService.findById(id).orElseThrow());
     }
 }
\ No newline at end of file
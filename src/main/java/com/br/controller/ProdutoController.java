@@ -1,5 +1,11 @@
 package com.br.controller;
 
+import com.br.dto.FiltroProduto;
+import com.br.dto.ItemEmprestimo;
+import com.br.dto.ProdutoRequisicao;
+import com.br.dto.ProdutoResumo;
+import com.br.dto.TotaisInventario;
+import com.br.exception.DadosInvalidosException;
 import com.br.model.Produto;
 import com.br.model.Categoria;
 import com.br.model.Marca;
@@ -8,11 +14,22 @@ import com.br.service.ProdutoService;
 import com.br.service.CategoriaService;
 import com.br.service.MarcaService;
 import com.br.service.LocalizacaoService;
+import com.br.service.ImportacaoProdutoService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,199 +51,71 @@ public class ProdutoController {
     @Autowired
     private LocalizacaoService localizacaoService;
     
+    @Autowired
+    private ImportacaoProdutoService importacaoProdutoService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // ============ CRUD BÁSICO ============
     
     @PostMapping
-    public ResponseEntity<?> criarProduto(@RequestBody Map<String, Object> requestBody) {
-        try {
-            System.out.println("=== DADOS RECEBIDOS ===");
-            for (Map.Entry<String, Object> entry : requestBody.entrySet()) {
-                System.out.println(entry.getKey() + ": " + entry.getValue() + 
-                                 " (tipo: " + (entry.getValue() != null ? entry.getValue().getClass().getSimpleName() : "null") + ")");
-            }
-            
-            // Extrai campos básicos
-            String nome = (String) requestBody.get("nome");
-            String codigo = (String) requestBody.get("codigo");
-            Object categoriaIdObj = requestBody.get("categoriaId");
-            Object marcaIdObj = requestBody.get("marcaId");
-            Object localizacaoIdObj = requestBody.get("localizacaoId");
-            
-            if (categoriaIdObj == null) {
-                return ResponseEntity.badRequest().body(Map.of("erro", "categoriaId é obrigatório"));
-            }
-            
-            // Converte IDs
-            Long categoriaId = converterParaLong(categoriaIdObj, "categoriaId");
-            if (categoriaId == null) {
-                return ResponseEntity.badRequest().body(Map.of("erro", "categoriaId inválido"));
-            }
-            
-            Long marcaId = converterParaLong(marcaIdObj, "marcaId");
-            Long localizacaoId = converterParaLong(localizacaoIdObj, "localizacaoId");
-            
-            // Busca categoria
-            Categoria categoria = categoriaService.findById(categoriaId)
-                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
-            
-            // Busca marca (se fornecida)
-            Marca marca = null;
-            if (marcaId != null) {
-                marca = marcaService.findById(marcaId).orElse(null);
-            }
-            
-            // Busca localização (se fornecida)
-            Localizacao localizacao = null;
-            if (localizacaoId != null) {
-                localizacao = localizacaoService.findById(localizacaoId).orElse(null);
-            }
-            
-            // Cria produto
-            Produto produto = new Produto();
-            produto.setNome(nome);
-            produto.setDescricao((String) requestBody.get("descricao"));
-            produto.setCodigo(codigo);
-            produto.setNumeroSerie((String) requestBody.get("numeroSerie"));
-            produto.setCategoria(categoria);
-            produto.setMarca(marca);
-            produto.setModelo((String) requestBody.get("modelo"));
-            produto.setLocalizacao(localizacao);
-            
-            // Quantidades
-            Object qtdTotalObj = requestBody.get("quantidadeTotal");
-            if (qtdTotalObj instanceof Integer) {
-                produto.setQuantidadeTotal((Integer) qtdTotalObj);
-                produto.setQuantidadeDisponivel((Integer) qtdTotalObj);
-            } else if (qtdTotalObj instanceof String) {
-                try {
-                    int quantidade = Integer.parseInt((String) qtdTotalObj);
-                    produto.setQuantidadeTotal(quantidade);
-                    produto.setQuantidadeDisponivel(quantidade);
-                } catch (NumberFormatException e) {
-                    produto.setQuantidadeTotal(0);
-                    produto.setQuantidadeDisponivel(0);
-                }
-            } else {
-                produto.setQuantidadeTotal(0);
-                produto.setQuantidadeDisponivel(0);
-            }
-            
-            // Outros campos
-            produto.setEstadoConservacao((String) requestBody.get("estadoConservacao"));
-            produto.setObservacoes((String) requestBody.get("observacoes"));
-            
-            // Ativo (default true)
-            Object ativoObj = requestBody.get("ativo");
-            if (ativoObj instanceof Boolean) {
-                produto.setAtivo((Boolean) ativoObj);
-            } else {
-                produto.setAtivo(true);
-            }
-            
-            // Salva produto
-            produtoService.validarProduto(produto);
-            Produto novoProduto = produtoService.salvarProduto(produto);
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(novoProduto);
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("erro", e.getMessage()));
-        }
+    public ResponseEntity<?> criarProduto(
+            @Validated(ProdutoRequisicao.Criacao.class) @RequestBody ProdutoRequisicao requisicao) {
+        Produto produto = new Produto();
+        produto.setQuantidadeTotal(0);
+        produto.setAtivo(true);
+        aplicarRequisicao(requisicao, produto);
+        produto.setQuantidadeDisponivel(produto.getQuantidadeTotal());
+        
+        // salvarProduto faz a validação de negócio (uma única vez) antes de gravar
+        Produto novoProduto = produtoService.salvarProduto(produto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(novoProduto);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<?> atualizarProduto(
             @PathVariable Long id, 
-            @RequestBody Map<String, Object> requestBody) {
-        try {
-            System.out.println("=== ATUALIZANDO PRODUTO " + id + " ===");
-            System.out.println("Dados: " + requestBody);
-            
-            // Busca produto existente
-            Produto produtoExistente = produtoService.buscarPorId(id)
-                .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado"));
-            
-            // Processa categoria
-            Object categoriaIdObj = requestBody.get("categoriaId");
-            if (categoriaIdObj != null) {
-                Long categoriaId = converterParaLong(categoriaIdObj, "categoriaId");
-                if (categoriaId != null) {
-                    Categoria categoria = categoriaService.findById(categoriaId)
-                        .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
-                    produtoExistente.setCategoria(categoria);
-                }
-            }
-            
-            // Processa marca
-            Object marcaIdObj = requestBody.get("marcaId");
-            if (marcaIdObj != null) {
-                Long marcaId = converterParaLong(marcaIdObj, "marcaId");
-                if (marcaId != null) {
-                    Marca marca = marcaService.findById(marcaId).orElse(null);
-                    produtoExistente.setMarca(marca);
-                }
-            }
-            
-            // Processa localização
-            Object localizacaoIdObj = requestBody.get("localizacaoId");
-            if (localizacaoIdObj != null) {
-                Long localizacaoId = converterParaLong(localizacaoIdObj, "localizacaoId");
-                if (localizacaoId != null) {
-                    Localizacao localizacao = localizacaoService.findById(localizacaoId).orElse(null);
-                    produtoExistente.setLocalizacao(localizacao);
-                }
-            }
-            
-            // Atualiza outros campos
-            if (requestBody.containsKey("nome")) {
-                produtoExistente.setNome((String) requestBody.get("nome"));
-            }
-            if (requestBody.containsKey("descricao")) {
-                produtoExistente.setDescricao((String) requestBody.get("descricao"));
-            }
-            if (requestBody.containsKey("codigo")) {
-                produtoExistente.setCodigo((String) requestBody.get("codigo"));
-            }
-            if (requestBody.containsKey("numeroSerie")) {
-                produtoExistente.setNumeroSerie((String) requestBody.get("numeroSerie"));
-            }
-            if (requestBody.containsKey("modelo")) {
-                produtoExistente.setModelo((String) requestBody.get("modelo"));
-            }
-            if (requestBody.containsKey("quantidadeTotal")) {
-                Object qtdObj = requestBody.get("quantidadeTotal");
-                if (qtdObj instanceof Integer) {
-                    int novaQuantidade = (Integer) qtdObj;
-                    produtoExistente.setQuantidadeTotal(novaQuantidade);
-                    // Ajusta disponível se necessário
-                    if (novaQuantidade < produtoExistente.getQuantidadeDisponivel()) {
-                        produtoExistente.setQuantidadeDisponivel(novaQuantidade);
-                    }
-                }
-            }
-            if (requestBody.containsKey("estadoConservacao")) {
-                produtoExistente.setEstadoConservacao((String) requestBody.get("estadoConservacao"));
-            }
-            if (requestBody.containsKey("observacoes")) {
-                produtoExistente.setObservacoes((String) requestBody.get("observacoes"));
-            }
-            if (requestBody.containsKey("ativo")) {
-                Object ativoObj = requestBody.get("ativo");
-                if (ativoObj instanceof Boolean) {
-                    produtoExistente.setAtivo((Boolean) ativoObj);
+            @Valid @RequestBody ProdutoRequisicao requisicao) {
+        Optional<Produto> produtoOpt = produtoService.buscarPorId(id);
+        if (produtoOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Produto produto = produtoOpt.get();
+        aplicarRequisicao(requisicao, produto);
+        // Sem versão no corpo vale a lida aqui: o pedido nunca é aplicado sobre um estado
+        // que nem o cliente nem esta requisição viram
+        if (requisicao.versao() != null) {
+            produto.setVersao(requisicao.versao());
+        }
+        // O disponível é recalculado pelo serviço sobre o estado atual do banco
+        Produto produtoAtualizado = produtoService.atualizarProduto(id, produto);
+        return ResponseEntity.ok(produtoAtualizado);
+    }
+    
+    // Importação em massa: responde em NDJSON, uma linha de progresso por lote processado
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void importarCsv(@RequestParam("arquivo") MultipartFile arquivo,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream saida = response.getOutputStream();
+        
+        try (InputStream entrada = arquivo.getInputStream()) {
+            importacaoProdutoService.importarCsv(entrada, progresso -> {
+                try {
+                    saida.write(objectMapper.writeValueAsBytes(progresso));
+                    saida.write('\n');
+                    saida.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-            }
-            
-            // Atualiza produto
-            Produto produtoAtualizado = produtoService.atualizarProduto(id, produtoExistente);
-            return ResponseEntity.ok(produtoAtualizado);
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("erro", e.getMessage()));
+            });
+        } catch (DadosInvalidosException e) {
+            // A resposta já começou (NDJSON): o erro do arquivo vai como uma linha do fluxo
+            saida.write(objectMapper.writeValueAsBytes(Map.of("erro", e.getMessage())));
+            saida.write('\n');
         }
     }
     
@@ -251,26 +140,33 @@ public class ProdutoController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    // Sem cursor/tamanho devolve a lista completa; com eles, uma página por cursor
     @GetMapping
-    public ResponseEntity<List<Produto>> listarTodos() {
-        List<Produto> produtos = produtoService.listarTodos();
+    public ResponseEntity<?> listarTodos(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        if (cursor != null || tamanho != null) {
+            return ResponseEntity.ok(produtoService.listarTodosPaginado(cursor, tamanho));
+        }
+        List<ProdutoResumo> produtos = produtoService.listarTodos();
         return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/ativos")
-    public ResponseEntity<List<Produto>> listarAtivos() {
-        List<Produto> produtos = produtoService.listarAtivos();
+    public ResponseEntity<?> listarAtivos(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        if (cursor != null || tamanho != null) {
+            return ResponseEntity.ok(produtoService.listarAtivosPaginado(cursor, tamanho));
+        }
+        List<ProdutoResumo> produtos = produtoService.listarAtivos();
         return ResponseEntity.ok(produtos);
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> desativarProduto(@PathVariable Long id) {
-        try {
-            produtoService.desativarProduto(id);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
-        }
+        produtoService.desativarProduto(id);
+        return ResponseEntity.noContent().build();
     }
     
     // ============ CONTROLE DE DISPONIBILIDADE ============
@@ -279,190 +175,123 @@ public class ProdutoController {
     public ResponseEntity<?> registrarEmprestimo(
             @PathVariable Long id,
             @RequestParam Integer quantidade) {
-        try {
-            produtoService.validarQuantidadeEmprestimo(id, quantidade);
-            Produto produto = produtoService.registrarEmprestimo(id, quantidade);
-            return ResponseEntity.ok(produto);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        // Rejeições (produto inexistente, inativo, sem saldo) são tratadas em TratadorErros
+        Produto produto = produtoService.registrarEmprestimo(id, quantidade);
+        return ResponseEntity.ok(produto);
+    }
+    
+    @PostMapping("/emprestimos")
+    public ResponseEntity<?> registrarEmprestimoEmLote(@RequestBody List<ItemEmprestimo> itens) {
+        List<Produto> produtos = produtoService.registrarEmprestimoEmLote(itens);
+        return ResponseEntity.ok(produtos);
     }
     
     @PostMapping("/{id}/devolucao")
     public ResponseEntity<?> registrarDevolucao(
             @PathVariable Long id,
             @RequestParam Integer quantidade) {
-        try {
-            Produto produto = produtoService.registrarDevolucao(id, quantidade);
-            return ResponseEntity.ok(produto);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        Produto produto = produtoService.registrarDevolucao(id, quantidade);
+        return ResponseEntity.ok(produto);
     }
     
     @GetMapping("/{id}/disponivel")
     public ResponseEntity<Boolean> verificarDisponibilidade(
             @PathVariable Long id,
             @RequestParam Integer quantidade) {
-        try {
-            boolean disponivel = produtoService.verificarDisponibilidade(id, quantidade);
-            return ResponseEntity.ok(disponivel);
-        } catch (Exception e) {
-            return ResponseEntity.ok(false);
-        }
+        boolean disponivel = produtoService.verificarDisponibilidade(id, quantidade);
+        return ResponseEntity.ok(disponivel);
     }
     
     @GetMapping("/disponiveis")
-    public ResponseEntity<List<Produto>> listarDisponiveis() {
-        List<Produto> produtos = produtoService.listarDisponiveisParaEmprestimo();
+    public ResponseEntity<List<ProdutoResumo>> listarDisponiveis() {
+        List<ProdutoResumo> produtos = produtoService.listarDisponiveisParaEmprestimo();
         return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/indisponiveis")
-    public ResponseEntity<List<Produto>> listarIndisponiveis() {
-        List<Produto> produtos = produtoService.listarSemDisponibilidade();
+    public ResponseEntity<List<ProdutoResumo>> listarIndisponiveis() {
+        List<ProdutoResumo> produtos = produtoService.listarSemDisponibilidade();
         return ResponseEntity.ok(produtos);
     }
     
     // ============ CONSULTAS POR ATRIBUTOS ============
     
     @GetMapping("/categoria/{categoriaId}")
-    public ResponseEntity<List<Produto>> buscarPorCategoria(@PathVariable Long categoriaId) {
-        try {
-            // Busca o nome da categoria pelo ID
-            String nomeCategoria = categoriaService.findById(categoriaId)
-                .map(Categoria::getNome)
-                .orElse(null);
-            
-            if (nomeCategoria != null) {
-                List<Produto> produtos = produtoService.buscarPorCategoria(nomeCategoria);
-                return ResponseEntity.ok(produtos);
-            }
-            return ResponseEntity.ok(List.of());
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
-        }
+    public ResponseEntity<List<ProdutoResumo>> buscarPorCategoria(@PathVariable Long categoriaId) {
+        List<ProdutoResumo> produtos = produtoService.buscarPorCategoria(categoriaId);
+        return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/marca/{marcaId}")
-    public ResponseEntity<List<Produto>> buscarPorMarca(@PathVariable Long marcaId) {
-        try {
-            // Busca o nome da marca pelo ID
-            String nomeMarca = marcaService.findById(marcaId)
-                .map(Marca::getNome)
-                .orElse(null);
-            
-            if (nomeMarca != null) {
-                List<Produto> produtos = produtoService.buscarPorMarca(nomeMarca);
-                return ResponseEntity.ok(produtos);
-            }
-            return ResponseEntity.ok(List.of());
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
-        }
+    public ResponseEntity<List<ProdutoResumo>> buscarPorMarca(@PathVariable Long marcaId) {
+        List<ProdutoResumo> produtos = produtoService.buscarPorMarca(marcaId);
+        return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/modelo/{modelo}")
-    public ResponseEntity<List<Produto>> buscarPorModelo(@PathVariable String modelo) {
-        try {
-            List<Produto> produtos = produtoService.buscarPorModelo(modelo);
-            return ResponseEntity.ok(produtos);
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
+    public ResponseEntity<?> buscarPorModelo(
+            @PathVariable String modelo,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        if (cursor != null || tamanho != null) {
+            return ResponseEntity.ok(produtoService.buscarPorModeloPaginado(modelo, cursor, tamanho));
         }
+        List<ProdutoResumo> produtos = produtoService.buscarPorModelo(modelo);
+        return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/localizacao/{localizacaoId}")
-    public ResponseEntity<List<Produto>> buscarPorLocalizacao(@PathVariable Long localizacaoId) {
-        try {
-            // Busca o nome da localização pelo ID
-            String nomeLocalizacao = localizacaoService.findById(localizacaoId)
-                .map(Localizacao::getNome)
-                .orElse(null);
-            
-            if (nomeLocalizacao != null) {
-                List<Produto> produtos = produtoService.buscarPorLocalizacao(nomeLocalizacao);
-                return ResponseEntity.ok(produtos);
-            }
-            return ResponseEntity.ok(List.of());
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
-        }
+    public ResponseEntity<List<ProdutoResumo>> buscarPorLocalizacao(@PathVariable Long localizacaoId) {
+        List<ProdutoResumo> produtos = produtoService.buscarPorLocalizacao(localizacaoId);
+        return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/estado/{estadoConservacao}")
-    public ResponseEntity<List<Produto>> buscarPorEstadoConservacao(@PathVariable String estadoConservacao) {
-        List<Produto> produtos = produtoService.buscarPorEstadoConservacao(estadoConservacao);
+    public ResponseEntity<List<ProdutoResumo>> buscarPorEstadoConservacao(@PathVariable String estadoConservacao) {
+        List<ProdutoResumo> produtos = produtoService.buscarPorEstadoConservacao(estadoConservacao);
         return ResponseEntity.ok(produtos);
     }
     
     // ============ BUSCA AVANÇADA ============
     
     @GetMapping("/buscar")
-    public ResponseEntity<List<Produto>> buscarPorTermo(@RequestParam String termo) {
-        List<Produto> produtos = produtoService.buscarPorTermo(termo);
+    public ResponseEntity<List<ProdutoResumo>> buscarPorTermo(
+            @RequestParam String termo,
+            @RequestParam(required = false) Integer limite) {
+        List<ProdutoResumo> produtos = produtoService.buscarPorTermo(termo, limite);
         return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/filtros")
-    public ResponseEntity<List<Produto>> buscarPorFiltros(
+    public ResponseEntity<List<ProdutoResumo>> buscarPorFiltros(
             @RequestParam(required = false) Long categoriaId,
             @RequestParam(required = false) Long marcaId,
+            @RequestParam(required = false) Long localizacaoId,
             @RequestParam(required = false) String estadoConservacao) {
-        try {
-            // Converte IDs para nomes
-            String categoriaNome = null;
-            if (categoriaId != null) {
-                categoriaNome = categoriaService.findById(categoriaId)
-                    .map(Categoria::getNome)
-                    .orElse(null);
-            }
-            
-            String marcaNome = null;
-            if (marcaId != null) {
-                marcaNome = marcaService.findById(marcaId)
-                    .map(Marca::getNome)
-                    .orElse(null);
-            }
-            
-            List<Produto> produtos = produtoService.buscarPorFiltros(categoriaNome, marcaNome, estadoConservacao);
-            return ResponseEntity.ok(produtos);
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
-        }
+        List<ProdutoResumo> produtos = produtoService.buscarPorFiltros(
+            new FiltroProduto(categoriaId, marcaId, localizacaoId, estadoConservacao));
+        return ResponseEntity.ok(produtos);
     }
     
     // ============ RELATÓRIOS E ESTATÍSTICAS ============
     
     @GetMapping("/estatisticas/categoria")
     public ResponseEntity<Map<String, Long>> obterEstatisticasCategoria() {
-        try {
-            Map<String, Long> estatisticas = produtoService.obterEstatisticasPorCategoria();
-            return ResponseEntity.ok(estatisticas);
-        } catch (Exception e) {
-            return ResponseEntity.ok(Map.of());
-        }
+        Map<String, Long> estatisticas = produtoService.obterEstatisticasPorCategoria();
+        return ResponseEntity.ok(estatisticas);
     }
     
     @GetMapping("/baixa-disponibilidade")
-    public ResponseEntity<List<Produto>> listarBaixaDisponibilidade(
+    public ResponseEntity<List<ProdutoResumo>> listarBaixaDisponibilidade(
             @RequestParam(defaultValue = "2") Integer quantidadeMinima) {
-        List<Produto> produtos = produtoService.listarComBaixaDisponibilidade(quantidadeMinima);
+        List<ProdutoResumo> produtos = produtoService.listarComBaixaDisponibilidade(quantidadeMinima);
         return ResponseEntity.ok(produtos);
     }
     
     @GetMapping("/contagem-itens")
-    public ResponseEntity<Map<String, Integer>> obterContagemItens() {
-        try {
-            Map<String, Integer> contagem = produtoService.obterContagemTotalItens();
-            return ResponseEntity.ok(contagem);
-        } catch (Exception e) {
-            return ResponseEntity.ok(Map.of("total", 0));
-        }
+    public ResponseEntity<TotaisInventario> obterContagemItens() {
+        TotaisInventario contagem = produtoService.obterContagemTotalItens();
+        return ResponseEntity.ok(contagem);
     }
     
     @GetMapping("/verificar/codigo/{codigo}")
@@ -479,22 +308,47 @@ public class ProdutoController {
     
     // ============ MÉTODOS AUXILIARES ============
     
-    private Long converterParaLong(Object obj, String campo) {
-        if (obj == null) return null;
+    // Copia os campos informados para o produto; nulos mantêm o valor atual
+    private void aplicarRequisicao(ProdutoRequisicao requisicao, Produto produto) {
+        if (requisicao.categoriaId() != null) {
+            Categoria categoria = categoriaService.findById(requisicao.categoriaId())
+                .orElseThrow(() -> new DadosInvalidosException("Categoria não encontrada"));
+            produto.setCategoria(categoria);
+        }
+        if (requisicao.marcaId() != null) {
+            Marca marca = marcaService.findById(requisicao.marcaId()).orElse(null);
+            produto.setMarca(marca);
+        }
+        if (requisicao.localizacaoId() != null) {
+            Localizacao localizacao = localizacaoService.findById(requisicao.localizacaoId()).orElse(null);
+            produto.setLocalizacao(localizacao);
+        }
         
-        try {
-            if (obj instanceof Integer) {
-                return ((Integer) obj).longValue();
-            } else if (obj instanceof Long) {
-                return (Long) obj;
-            } else if (obj instanceof String) {
-                return Long.parseLong((String) obj);
-            } else if (obj instanceof Double) {
-                return ((Double) obj).longValue();
-            }
-        } catch (NumberFormatException e) {
-            System.out.println("Erro ao converter " + campo + ": " + obj + " (" + obj.getClass().getSimpleName() + ")");
+        if (requisicao.nome() != null) {
+            produto.setNome(requisicao.nome());
+        }
+        if (requisicao.codigo() != null) {
+            produto.setCodigo(requisicao.codigo());
+        }
+        produto.setDescricao(texto(requisicao.descricao(), produto.getDescricao()));
+        produto.setNumeroSerie(texto(requisicao.numeroSerie(), produto.getNumeroSerie()));
+        produto.setModelo(texto(requisicao.modelo(), produto.getModelo()));
+        produto.setEstadoConservacao(texto(requisicao.estadoConservacao(), produto.getEstadoConservacao()));
+        produto.setObservacoes(texto(requisicao.observacoes(), produto.getObservacoes()));
+        
+        if (requisicao.quantidadeTotal() != null) {
+            produto.setQuantidadeTotal(requisicao.quantidadeTotal());
+        }
+        if (requisicao.ativo() != null) {
+            produto.setAtivo(requisicao.ativo());
+        }
+    }
+    
+    // Campo opcional: nulo mantém o valor atual, texto em branco limpa
+    private static String texto(String informado, String atual) {
+        if (informado == null) {
+            return atual;
         }
-        return null;
+        return informado.isBlank() ? null : informado;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.br.controller;
+
+import com.br.exception.ConflitoException;
+import com.br.exception.DadosInvalidosException;
+import com.br.exception.NegocioException;
+import com.br.exception.RecursoNaoEncontradoException;
+import com.br.exception.RegraNegocioException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Converte as exceções dos serviços em respostas {"erro": mensagem}, no lugar dos try/catch
+// de cada endpoint. Rejeições de negócio não são logadas (são esperadas e a resposta já traz
+// o motivo); só o erro inesperado registra o stack trace, uma vez, pelo logger.
+// Métrica: inventario.erros.negocio (tags tipo e status).
+@RestControllerAdvice
+public class TratadorErros {
+
+    private static final Logger log = LoggerFactory.getLogger(TratadorErros.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // ============ REJEIÇÕES DE NEGÓCIO ============
+
+    @ExceptionHandler(DadosInvalidosException.class)
+    public ResponseEntity<Map<String, String>> tratarDadosInvalidos(DadosInvalidosException e) {
+        return rejeitar(HttpStatus.BAD_REQUEST, e);
+    }
+
+    @ExceptionHandler(RecursoNaoEncontradoException.class)
+    public ResponseEntity<Map<String, String>> tratarNaoEncontrado(RecursoNaoEncontradoException e) {
+        return rejeitar(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(ConflitoException.class)
+    public ResponseEntity<Map<String, String>> tratarConflito(ConflitoException e) {
+        return rejeitar(HttpStatus.CONFLICT, e);
+    }
+
+    @ExceptionHandler(RegraNegocioException.class)
+    public ResponseEntity<Map<String, String>> tratarRegraNegocio(RegraNegocioException e) {
+        return rejeitar(HttpStatus.UNPROCESSABLE_CONTENT, e);
+    }
+
+    // ============ ERROS DO FRAMEWORK ============
+
+    // Falhas do Bean Validation no corpo da requisição: 400 com a primeira mensagem
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> tratarValidacao(MethodArgumentNotValidException e) {
+        String mensagem = e.getBindingResult().getFieldErrors().stream()
+            .map(FieldError::getDefaultMessage)
+            .findFirst()
+            .orElse("Requisição inválida");
+        return ResponseEntity.badRequest().body(Map.of("erro", mensagem));
+    }
+
+    // Conflito de @Version que persistiu após as retentativas de RetentativaOtimista, ou alteração
+    // concorrente entre a leitura e o commit de uma atualização
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> tratarConcorrencia(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(Map.of("erro", "Registro alterado por outra operação, tente novamente"));
+    }
+
+    // Restrição do banco que a validação do serviço não antecipou: valor único gravado por outra
+    // operação (ou fora dos serviços, sem passar pelos filtros de Bloom) ou registro ainda referenciado
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> tratarIntegridade(DataIntegrityViolationException e) {
+        log.warn("Restrição do banco violada: {}", e.getMostSpecificCause().getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(Map.of("erro", "Valor já cadastrado ou registro em uso, recarregue e tente novamente"));
+    }
+
+    // Parâmetro com tipo errado (ex.: id não numérico) ou corpo JSON malformado
+    @ExceptionHandler({TypeMismatchException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<Map<String, String>> tratarRequisicaoMalformada(Exception e) {
+        return ResponseEntity.badRequest().body(Map.of("erro", "Requisição inválida"));
+    }
+
+    // Exceções do Spring MVC (parâmetro ausente, método não suportado, rota inexistente...)
+    // mantêm o status que já declaram; o resto é erro inesperado
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, String>> tratarInesperado(Exception e) {
+        if (e instanceof ErrorResponse resposta) {
+            return ResponseEntity.status(resposta.getStatusCode())
+                .body(Map.of("erro", resposta.getBody().getDetail() != null
+                    ? resposta.getBody().getDetail() : "Requisição inválida"));
+        }
+        log.error("Erro não tratado na requisição", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(Map.of("erro", "Erro interno"));
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private ResponseEntity<Map<String, String>> rejeitar(HttpStatus status, NegocioException e) {
+        meterRegistry.counter("inventario.erros.negocio",
+            "tipo", e.getClass().getSimpleName(),
+            "status", String.valueOf(status.value())).increment();
+        return ResponseEntity.status(status).body(Map.of("erro", e.getMessage()));
+    }
+}
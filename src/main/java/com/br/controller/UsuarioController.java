@@ -1,6 +1,9 @@
 // UsuarioController.java
 package com.br.controller;
 
+import com.br.dto.TotaisUsuarios;
+import com.br.exception.ConflitoException;
+import com.br.exception.RecursoNaoEncontradoException;
 import com.br.model.Usuario;
 import com.br.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +11,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,147 +27,120 @@ public class UsuarioController {
     
     @PostMapping
     public ResponseEntity<?> criarUsuario(@RequestBody Map<String, Object> requestBody) {
-        try {
-            System.out.println("=== CRIANDO USUÁRIO ===");
-            for (Map.Entry<String, Object> entry : requestBody.entrySet()) {
-                System.out.println(entry.getKey() + ": " + entry.getValue() + 
-                                 " (tipo: " + (entry.getValue() != null ? entry.getValue().getClass().getSimpleName() : "null") + ")");
-            }
-            
-            // Extrai campos obrigatórios
-            String nome = (String) requestBody.get("nome");
-            String email = (String) requestBody.get("email");
-            
-            if (nome == null || nome.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("erro", "Nome é obrigatório"));
-            }
-            
-            if (email == null || email.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("erro", "Email é obrigatório"));
-            }
-            
-            // Cria usuário
-            Usuario usuario = new Usuario();
-            usuario.setNome(nome);
-            usuario.setEmail(email);
-            
-            // Campos opcionais
-            if (requestBody.containsKey("matricula")) {
-                usuario.setMatricula((String) requestBody.get("matricula"));
-            }
-            
-            if (requestBody.containsKey("departamento")) {
-                usuario.setDepartamento((String) requestBody.get("departamento"));
-            }
-            
-            if (requestBody.containsKey("cargo")) {
-                usuario.setCargo((String) requestBody.get("cargo"));
-            }
-            
-            if (requestBody.containsKey("telefone")) {
-                usuario.setTelefone((String) requestBody.get("telefone"));
-            }
-            
-            // Ativo (default true)
-            Object ativoObj = requestBody.get("ativo");
-            if (ativoObj instanceof Boolean) {
-                usuario.setAtivo((Boolean) ativoObj);
-            } else {
-                usuario.setAtivo(true);
-            }
-            
-            // Valida e salva
-            usuarioService.validarUsuario(usuario);
-            Usuario novoUsuario = usuarioService.salvarUsuario(usuario);
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(novoUsuario);
-            
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("erro", "Erro interno ao criar usuário"));
+        // Extrai campos obrigatórios
+        String nome = (String) requestBody.get("nome");
+        String email = (String) requestBody.get("email");
+        
+        if (nome == null || nome.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("erro", "Nome é obrigatório"));
+        }
+        
+        if (email == null || email.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("erro", "Email é obrigatório"));
+        }
+        
+        // Cria usuário
+        Usuario usuario = new Usuario();
+        usuario.setNome(nome);
+        usuario.setEmail(email);
+        
+        // Campos opcionais
+        if (requestBody.containsKey("matricula")) {
+            usuario.setMatricula((String) requestBody.get("matricula"));
         }
+        
+        if (requestBody.containsKey("departamento")) {
+            usuario.setDepartamento((String) requestBody.get("departamento"));
+        }
+        
+        if (requestBody.containsKey("cargo")) {
+            usuario.setCargo((String) requestBody.get("cargo"));
+        }
+        
+        if (requestBody.containsKey("telefone")) {
+            usuario.setTelefone((String) requestBody.get("telefone"));
+        }
+        
+        // Ativo (default true)
+        Object ativoObj = requestBody.get("ativo");
+        if (ativoObj instanceof Boolean) {
+            usuario.setAtivo((Boolean) ativoObj);
+        } else {
+            usuario.setAtivo(true);
+        }
+        
+        // Valida e salva; rejeições viram resposta em TratadorErros
+        usuarioService.validarUsuario(usuario);
+        Usuario novoUsuario = usuarioService.salvarUsuario(usuario);
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(novoUsuario);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<?> atualizarUsuario(
             @PathVariable Long id, 
             @RequestBody Map<String, Object> requestBody) {
-        try {
-            System.out.println("=== ATUALIZANDO USUÁRIO " + id + " ===");
-            System.out.println("Dados: " + requestBody);
-            
-            // Busca usuário existente
-            Usuario usuarioExistente = usuarioService.buscarPorId(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-            
-            // Atualiza campos permitidos
-            if (requestBody.containsKey("nome")) {
-                usuarioExistente.setNome((String) requestBody.get("nome"));
-            }
-            
-            if (requestBody.containsKey("email")) {
-                String novoEmail = (String) requestBody.get("email");
-                // Verifica se email foi alterado
-                if (!usuarioExistente.getEmail().equals(novoEmail)) {
-                    // Valida duplicidade
-                    if (usuarioService.existeEmail(novoEmail)) {
-                        return ResponseEntity.badRequest()
-                            .body(Map.of("erro", "Email já existe: " + novoEmail));
-                    }
-                    usuarioExistente.setEmail(novoEmail);
-                }
-            }
-            
-            if (requestBody.containsKey("matricula")) {
-                String novaMatricula = (String) requestBody.get("matricula");
-                // Verifica se matrícula foi alterada
-                if (novaMatricula != null && 
-                    !novaMatricula.equals(usuarioExistente.getMatricula())) {
-                    // Valida duplicidade
-                    if (usuarioService.existeMatricula(novaMatricula)) {
-                        return ResponseEntity.badRequest()
-                            .body(Map.of("erro", "Matrícula já existe: " + novaMatricula));
-                    }
-                    usuarioExistente.setMatricula(novaMatricula);
+        // Busca usuário existente
+        Usuario usuarioExistente = usuarioService.buscarPorId(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"));
+        
+        // Atualiza campos permitidos
+        if (requestBody.containsKey("nome")) {
+            usuarioExistente.setNome((String) requestBody.get("nome"));
+        }
+        
+        if (requestBody.containsKey("email")) {
+            String novoEmail = (String) requestBody.get("email");
+            // Verifica se email foi alterado
+            if (!usuarioExistente.getEmail().equals(novoEmail)) {
+                // Valida duplicidade
+                if (usuarioService.existeEmail(novoEmail)) {
+                    throw new ConflitoException("Email já existe: " + novoEmail);
                 }
+                usuarioExistente.setEmail(novoEmail);
             }
-            
-            if (requestBody.containsKey("departamento")) {
-                usuarioExistente.setDepartamento((String) requestBody.get("departamento"));
-            }
-            
-            if (requestBody.containsKey("cargo")) {
-                usuarioExistente.setCargo((String) requestBody.get("cargo"));
-            }
-            
-            if (requestBody.containsKey("telefone")) {
-                usuarioExistente.setTelefone((String) requestBody.get("telefone"));
-            }
-            
-            if (requestBody.containsKey("ativo")) {
-                Object ativoObj = requestBody.get("ativo");
-                if (ativoObj instanceof Boolean) {
-                    usuarioExistente.setAtivo((Boolean) ativoObj);
+        }
+        
+        if (requestBody.containsKey("matricula")) {
+            String novaMatricula = (String) requestBody.get("matricula");
+            // Verifica se matrícula foi alterada
+            if (novaMatricula != null && 
+                !novaMatricula.equals(usuarioExistente.getMatricula())) {
+                // Valida duplicidade
+                if (usuarioService.existeMatricula(novaMatricula)) {
+                    throw new ConflitoException("Matrícula já existe: " + novaMatricula);
                 }
+                usuarioExistente.setMatricula(novaMatricula);
             }
-            
-            // Atualiza usuário
-            Usuario usuarioAtualizado = usuarioService.atualizarUsuario(id, usuarioExistente);
-            return ResponseEntity.ok(usuarioAtualizado);
-            
-        } catch (IllegalArgumentException e) {
-            if (e.getMessage().contains("não encontrado")) {
-                return ResponseEntity.notFound().build();
+        }
+        
+        if (requestBody.containsKey("departamento")) {
+            usuarioExistente.setDepartamento((String) requestBody.get("departamento"));
+        }
+        
+        if (requestBody.containsKey("cargo")) {
+            usuarioExistente.setCargo((String) requestBody.get("cargo"));
+        }
+        
+        if (requestBody.containsKey("telefone")) {
+            usuarioExistente.setTelefone((String) requestBody.get("telefone"));
+        }
+        
+        if (requestBody.containsKey("ativo")) {
+            Object ativoObj = requestBody.get("ativo");
+            if (ativoObj instanceof Boolean) {
+                usuarioExistente.setAtivo((Boolean) ativoObj);
             }
-            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("erro", "Erro interno ao atualizar usuário"));
         }
+        
+        // Versão lida pelo cliente (sem ela, a lida aqui): se o usuário mudou desde então, 409
+        if (requestBody.get("versao") instanceof Number versao) {
+            usuarioExistente.setVersao(versao.longValue());
+        }
+        
+        // Atualiza usuário
+        Usuario usuarioAtualizado = usuarioService.atualizarUsuario(id, usuarioExistente);
+        return ResponseEntity.ok(usuarioAtualizado);
     }
     
     @GetMapping("/{id}")
@@ -203,56 +178,49 @@ public class UsuarioController {
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> desativarUsuario(@PathVariable Long id) {
-        try {
-            usuarioService.desativarUsuario(id);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
-        }
+        usuarioService.desativarUsuario(id);
+        return ResponseEntity.noContent().build();
     }
     
     @PatchMapping("/{id}/reativar")
     public ResponseEntity<Void> reativarUsuario(@PathVariable Long id) {
-        try {
-            usuarioService.reativarUsuario(id);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
-        }
+        usuarioService.reativarUsuario(id);
+        return ResponseEntity.noContent().build();
     }
     
     // ============ CONSULTAS POR ATRIBUTOS ============
     
     @GetMapping("/departamento/{departamento}")
     public ResponseEntity<List<Usuario>> buscarPorDepartamento(@PathVariable String departamento) {
-        try {
-            List<Usuario> usuarios = usuarioService.buscarPorDepartamento(departamento);
-            return ResponseEntity.ok(usuarios);
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
-        }
+        List<Usuario> usuarios = usuarioService.buscarPorDepartamento(departamento);
+        return ResponseEntity.ok(usuarios);
     }
     
     @GetMapping("/cargo/{cargo}")
-    public ResponseEntity<List<Usuario>> buscarPorCargo(@PathVariable String cargo) {
-        try {
-            List<Usuario> usuarios = usuarioService.buscarPorCargo(cargo);
-            return ResponseEntity.ok(usuarios);
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
+    public ResponseEntity<?> buscarPorCargo(
+            @PathVariable String cargo,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        if (cursor != null || tamanho != null) {
+            return ResponseEntity.ok(usuarioService.buscarPorCargoPaginado(cargo, cursor, tamanho));
         }
+        List<Usuario> usuarios = usuarioService.buscarPorCargo(cargo);
+        return ResponseEntity.ok(usuarios);
     }
     
     // ============ BUSCA AVANÇADA ============
     
     @GetMapping("/buscar")
-    public ResponseEntity<List<Usuario>> buscarPorTermo(@RequestParam String termo) {
-        try {
-            List<Usuario> usuarios = usuarioService.buscarPorTermo(termo);
-            return ResponseEntity.ok(usuarios);
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of());
+    public ResponseEntity<?> buscarPorTermo(
+            @RequestParam String termo,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamanho) {
+        // Com pagina devolve uma página; sem ela, os mais relevantes (até tamanho)
+        if (pagina != null) {
+            return ResponseEntity.ok(usuarioService.buscarPorTermoPaginado(termo, pagina, tamanho));
         }
+        List<Usuario> usuarios = usuarioService.buscarPorTermo(termo, tamanho);
+        return ResponseEntity.ok(usuarios);
     }
     
     // ============ VALIDAÇÕES ============
@@ -272,43 +240,14 @@ public class UsuarioController {
     // ============ RELATÓRIOS ============
     
     @GetMapping("/relatorios/contagem")
-    public ResponseEntity<Map<String, Integer>> obterContagemUsuarios() {
-        try {
-            Map<String, Integer> contagem = usuarioService.obterContagemTotalUsuarios();
-            return ResponseEntity.ok(contagem);
-        } catch (Exception e) {
-            return ResponseEntity.ok(Map.of("total", 0));
-        }
+    public ResponseEntity<TotaisUsuarios> obterContagemUsuarios() {
+        TotaisUsuarios contagem = usuarioService.obterContagemTotalUsuarios();
+        return ResponseEntity.ok(contagem);
     }
     
     @GetMapping("/relatorios/departamento")
     public ResponseEntity<Map<String, Long>> obterContagemPorDepartamento() {
-        try {
-            Map<String, Long> contagem = usuarioService.contarPorDepartamento();
-            return ResponseEntity.ok(contagem);
-        } catch (Exception e) {
-            return ResponseEntity.ok(Map.of());
-        }
-    }
-    
-    // ============ MÉTODOS AUXILIARES (opcionais, seguindo o padrão Produto) ============
-    
-    private Long converterParaLong(Object obj, String campo) {
-        if (obj == null) return null;
-        
-        try {
-            if (obj instanceof Integer) {
-                return ((Integer) obj).longValue();
-            } else if (obj instanceof Long) {
-                return (Long) obj;
-            } else if (obj instanceof String) {
-                return Long.parseLong((String) obj);
-            } else if (obj instanceof Double) {
-                return ((Double) obj).longValue();
-            }
-        } catch (NumberFormatException e) {
-            System.out.println("Erro ao converter " + campo + ": " + obj + " (" + obj.getClass().getSimpleName() + ")");
-        }
-        return null;
+        Map<String, Long> contagem = usuarioService.contarPorDepartamento();
+        return ResponseEntity.ok(contagem);
     }
 }
\ No newline at end of file
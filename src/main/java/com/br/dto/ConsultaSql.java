@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Tempo acumulado de um comando SQL desde a inicialização (ou a última limpeza das estatísticas)
+public record ConsultaSql(String sql, long execucoes, double totalMs, double mediaMs, double maximoMs) {
+}
@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Quantidade de produtos ativos de uma categoria
+public record ContagemCategoria(Long categoriaId, String categoria, long quantidade) {
+}
@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Linha rejeitada na importação de produtos (linha 1 = cabeçalho)
+public record ErroImportacao(long linha, String mensagem) {
+}
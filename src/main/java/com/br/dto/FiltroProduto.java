@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Critérios opcionais da filtragem de produtos ativos; campos nulos não restringem
+public record FiltroProduto(Long categoriaId, Long marcaId, Long localizacaoId, String estadoConservacao) {
+}
@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Item de um empréstimo em lote (checkout de vários produtos de uma vez)
+public record ItemEmprestimo(Long produtoId, Integer quantidade) {
+}
@@ -0,0 +1,8 @@
+package com.br.dto;
+
+import java.util.List;
+
+// Página de uma listagem paginada por cursor (keyset).
+// proximoCursor é o último id da página; null quando não há mais registros.
+public record PaginaCursor<T>(List<T> itens, Long proximoCursor, int tamanho) {
+}
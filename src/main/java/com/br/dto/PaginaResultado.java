@@ -0,0 +1,8 @@
+package com.br.dto;
+
+import java.util.List;
+
+// Página de uma busca ordenada por relevância (por número de página, sem cursor).
+// temProxima é calculado buscando um item a mais, sem COUNT sobre a tabela.
+public record PaginaResultado<T>(List<T> itens, int pagina, int tamanho, boolean temProxima) {
+}
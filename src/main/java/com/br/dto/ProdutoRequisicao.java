@@ -0,0 +1,54 @@
+package com.br.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
+
+// Corpo de POST e PUT /api/produtos, ligado direto pelo Jackson e validado pelo Bean Validation.
+// Na criação nome, código e categoria são obrigatórios; na alteração campos nulos mantêm
+// o valor atual e texto vazio limpa o campo
+public record ProdutoRequisicao(
+        @NotBlank(groups = Criacao.class, message = "Nome é obrigatório")
+        @Size(min = 3, max = 100, message = "Nome deve ter entre 3 e 100 caracteres")
+        String nome,
+
+        @Size(max = 500, message = "Descrição muito longa")
+        String descricao,
+
+        @NotBlank(groups = Criacao.class, message = "Código patrimonial/SN é obrigatório")
+        @Size(min = 3, max = 50, message = "Código deve ter entre 3 e 50 caracteres")
+        String codigo,
+
+        @Size(max = 100, message = "Número de série muito longo")
+        String numeroSerie,
+
+        @NotNull(groups = Criacao.class, message = "categoriaId é obrigatório")
+        Long categoriaId,
+
+        Long marcaId,
+
+        @Size(max = 100, message = "Modelo muito longo")
+        String modelo,
+
+        Long localizacaoId,
+
+        @Min(value = 0, message = "Quantidade não pode ser negativa")
+        Integer quantidadeTotal,
+
+        @Size(max = 20, message = "Estado de conservação muito longo")
+        String estadoConservacao,
+
+        @Size(max = 1000, message = "Observações muito longas")
+        String observacoes,
+
+        Boolean ativo,
+
+        // Só na alteração: versão lida pelo cliente; se o produto mudou desde então, 409
+        Long versao) {
+
+    // Restrições só da criação; estende Default para incluir também as comuns
+    public interface Criacao extends Default {
+    }
+}
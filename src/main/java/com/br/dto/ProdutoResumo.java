@@ -0,0 +1,17 @@
+package com.br.dto;
+
+// Linha das listagens de produtos: campos do próprio produto e nomes das associações,
+// montada por uma única consulta com joins (a entidade completa fica só no detalhe)
+public record ProdutoResumo(
+        Long id,
+        String nome,
+        String codigo,
+        String modelo,
+        String categoria,
+        String marca,
+        String localizacao,
+        Integer quantidadeTotal,
+        Integer quantidadeDisponivel,
+        String estadoConservacao,
+        Boolean ativo) {
+}
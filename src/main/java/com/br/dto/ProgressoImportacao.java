@@ -0,0 +1,12 @@
+package com.br.dto;
+
+import java.util.List;
+
+// Emitido a cada lote processado; erros traz apenas as rejeições do lote corrente
+public record ProgressoImportacao(
+        long linhasProcessadas,
+        long importados,
+        long rejeitados,
+        List<ErroImportacao> erros,
+        boolean concluido) {
+}
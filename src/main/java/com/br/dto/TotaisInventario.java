@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Totais de itens dos produtos ativos, calculados por uma única consulta de agregação
+public record TotaisInventario(long totalItens, long totalDisponiveis, long totalEmprestados) {
+}
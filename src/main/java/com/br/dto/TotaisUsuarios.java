@@ -0,0 +1,5 @@
+package com.br.dto;
+
+// Contagem de usuários por situação, calculada por uma única consulta de agregação
+public record TotaisUsuarios(long totalUsuarios, long totalAtivos, long totalInativos) {
+}
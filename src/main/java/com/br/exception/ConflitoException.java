@@ -0,0 +1,9 @@
+package com.br.exception;
+
+// Valor de chave única já usado por outro registro (código, número de série, email, nome)
+public class ConflitoException extends NegocioException {
+
+    public ConflitoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,9 @@
+package com.br.exception;
+
+// Entrada inválida: campo obrigatório ausente, quantidade fora do intervalo, linha de CSV malformada
+public class DadosInvalidosException extends NegocioException {
+
+    public DadosInvalidosException(String mensagem) {
+        super(mensagem);
+    }
+}
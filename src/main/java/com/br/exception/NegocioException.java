@@ -0,0 +1,12 @@
+package com.br.exception;
+
+// Base das rejeições esperadas de regra de negócio (dados inválidos, duplicidade, saldo
+// insuficiente...). São lançadas em operação normal, muitas vezes por requisição sob carga, e a
+// mensagem já explica o motivo: não capturam stack trace nem exceções suprimidas.
+// O status HTTP de cada subclasse é definido em com.br.controller.TratadorErros.
+public abstract class NegocioException extends RuntimeException {
+
+    protected NegocioException(String mensagem) {
+        super(mensagem, null, false, false);
+    }
+}
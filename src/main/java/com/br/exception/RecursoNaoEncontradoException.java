@@ -0,0 +1,9 @@
+package com.br.exception;
+
+// O id informado não corresponde a nenhum registro
+public class RecursoNaoEncontradoException extends NegocioException {
+
+    public RecursoNaoEncontradoException(String mensagem) {
+        super(mensagem);
+    }
+}
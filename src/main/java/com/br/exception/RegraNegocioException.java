@@ -0,0 +1,10 @@
+package com.br.exception;
+
+// Requisição bem formada recusada pelo estado atual do registro: disponibilidade insuficiente,
+// produto inativo, devolução acima do total
+public class RegraNegocioException extends NegocioException {
+
+    public RegraNegocioException(String mensagem) {
+        super(mensagem);
+    }
+}
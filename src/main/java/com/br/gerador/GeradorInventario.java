@@ -0,0 +1,357 @@
+package com.br.gerador;
+
+import com.br.model.enums.EstadoConservacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import java.sql.Types;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Massa de dados sintética para testes de escala, gravada direto por JDBC (sem JPA) em INSERTs
+// de várias linhas, com os produtos e usuários divididos em tarefas executadas em paralelo.
+// As distribuições imitam um inventário real: poucas categorias concentram a maior parte dos
+// produtos, marcas com cauda longa (as conhecidas primeiro, centenas de marcas com poucos itens),
+// sobrenomes e departamentos desiguais, e empréstimos com popularidade de Zipf: alguns produtos
+// têm muitas unidades emprestadas e a maioria nenhuma.
+// Cada tarefa tem o seu gerador aleatório derivado da semente: mesma semente, mesma massa.
+public class GeradorInventario {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorInventario.class);
+
+    private static final int LINHAS_POR_INSERT = 500;
+    private static final int LINHAS_POR_TAREFA = 20_000;
+
+    // Primo maior que qualquer quantidade de produtos: espalha os postos de popularidade pelos ids
+    private static final long PRIMO_EMBARALHAMENTO = 2_147_483_647L;
+
+    // Categorias do sistema (CategoriaInitializer), da mais para a menos popular
+    private static final String[] CATEGORIAS_PRINCIPAIS = { "Notebook", "Monitor", "Mouse", "Teclado",
+            "Periférico", "Desktop", "Licença", "Software", "Componente", "Impressora", "Switch", "Roteador",
+            "Servidor", "Scanner", "Outro" };
+
+    private static final String[] MARCAS_PRINCIPAIS = { "Dell", "Lenovo", "HP", "Logitech", "Samsung", "LG",
+            "Microsoft", "Apple", "Acer", "Asus", "Positivo", "Multilaser", "Epson", "Cisco", "Intel", "Kingston",
+            "TP-Link", "Brother", "AOC", "Philips" };
+
+    private static final String[] LOCALIZACOES_PRINCIPAIS = { "Almoxarifado", "Sala de TI", "Datacenter",
+            "Recepção", "Sala 101", "Sala 102", "Laboratório", "Auditório" };
+
+    private static final String[] MODELOS = { "Latitude", "ThinkPad", "EliteBook", "MX Master", "Odyssey",
+            "UltraGear", "EcoTank", "Catalyst", "NUC", "Surface", "Vostro", "IdeaPad", "ProBook", "Aspire" };
+
+    private static final String[] NOMES = { "Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela",
+            "Heitor", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia",
+            "Tiago", "Vitória", "William" };
+
+    // Ordenados por frequência: sorteados com Zipf
+    private static final String[] SOBRENOMES = { "Silva", "Santos", "Oliveira", "Souza", "Rodrigues",
+            "Ferreira", "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho",
+            "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa" };
+
+    private static final String[] NOMES_EMAIL = semAcentos(NOMES);
+    private static final String[] SOBRENOMES_EMAIL = semAcentos(SOBRENOMES);
+
+    private static final String[] DEPARTAMENTOS = { "TI", "Operações", "Comercial", "Financeiro", "RH",
+            "Marketing", "Jurídico", "Diretoria" };
+
+    private static final String[] CARGOS = { "Analista", "Assistente", "Desenvolvedor", "Coordenador",
+            "Gerente", "Estagiário", "Diretor" };
+    private static final int[] PESOS_CARGOS = { 35, 20, 20, 10, 8, 5, 2 };
+
+    private static final EstadoConservacao[] ESTADOS = EstadoConservacao.values();
+    private static final int[] PESOS_ESTADOS = { 15, 20, 40, 15, 7, 3 };
+
+    private static final String INSERT_PRODUTOS = """
+            INSERT INTO produtos (id, nome, codigo, numero_serie, categoria_id, marca_id, modelo, localizacao_id,
+                quantidade_total, quantidade_disponivel, estado_conservacao, data_aquisicao, garantia_ate,
+                ativo, data_criacao, data_atualizacao, versao)""";
+    private static final String VALORES_PRODUTO = "(nextval('produtos_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_USUARIOS = """
+            INSERT INTO usuarios (nome, email, matricula, departamento, cargo, telefone, ativo,
+                data_criacao, data_atualizacao, versao)""";
+    private static final String VALORES_USUARIO = "(?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbc;
+
+    public GeradorInventario(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void gerar(ParametrosGeracao parametros) {
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        SplittableRandom random = new SplittableRandom(parametros.semente());
+
+        List<Referencia> categorias = garantirReferencias("categorias", CATEGORIAS_PRINCIPAIS, true,
+                "Categoria", parametros.categorias(), parametros.lote(), agora);
+        List<Referencia> marcas = garantirReferencias("marcas", MARCAS_PRINCIPAIS, false,
+                "Marca", parametros.marcas(), parametros.lote(), agora);
+        List<Referencia> localizacoes = garantirReferencias("localizacoes", LOCALIZACOES_PRINCIPAIS, false,
+                "Local", parametros.localizacoes(), parametros.lote(), agora);
+        if (categorias.isEmpty() && parametros.produtos() > 0) {
+            throw new IllegalArgumentException("Produtos exigem ao menos uma categoria");
+        }
+
+        int[] emprestados = distribuirEmprestimos(parametros, random);
+        inserirEmParalelo("produtos", parametros.produtos(), parametros, (inicio, fim, rnd) ->
+                inserirProdutos(inicio, fim, rnd, parametros.lote(), agora, emprestados, categorias, marcas, localizacoes));
+        inserirEmParalelo("usuarios", parametros.usuarios(), parametros, (inicio, fim, rnd) ->
+                inserirUsuarios(inicio, fim, rnd, parametros.lote(), agora));
+
+        atualizarEstatisticas();
+    }
+
+    // ============ REFERÊNCIAS ============
+
+    // Ids das categorias/marcas/localizações na ordem de popularidade: primeiro as principais
+    // (reaproveitadas quando já existem), depois a cauda com nomes do lote
+    private List<Referencia> garantirReferencias(String tabela, String[] principais, boolean sistema,
+                                                 String prefixoCauda, int total, String lote, LocalDateTime agora) {
+        List<String> nomes = new ArrayList<>(total);
+        for (int i = 0; i < Math.min(total, principais.length); i++) {
+            nomes.add(principais[i]);
+        }
+        for (int i = nomes.size() + 1; i <= total; i++) {
+            nomes.add(prefixoCauda + " " + lote + "-" + i);
+        }
+
+        Map<String, Long> existentes = idsPorNome(tabela);
+        List<String> faltantes = nomes.stream().filter(nome -> !existentes.containsKey(nome)).toList();
+        jdbc.batchUpdate("INSERT INTO " + tabela
+                        + " (nome, descricao, ativo, tipo_sistema, data_criacao, data_atualizacao) VALUES (?, ?, true, ?, ?, ?)",
+                faltantes, 1_000, (ps, nome) -> {
+                    boolean principal = sistema && nomes.indexOf(nome) < principais.length;
+                    ps.setString(1, nome);
+                    ps.setString(2, principal ? "Categoria do sistema - " + nome : null);
+                    ps.setBoolean(3, principal);
+                    ps.setObject(4, agora);
+                    ps.setObject(5, agora);
+                });
+        if (!faltantes.isEmpty()) {
+            existentes.putAll(idsPorNome(tabela));
+        }
+        log.info("{}: {} em uso, {} criadas", tabela, nomes.size(), faltantes.size());
+
+        return nomes.stream().map(nome -> new Referencia(existentes.get(nome), nome)).toList();
+    }
+
+    private Map<String, Long> idsPorNome(String tabela) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("SELECT id, nome FROM " + tabela, rs -> {
+            ids.put(rs.getString("nome"), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    // ============ PRODUTOS ============
+
+    // Unidades emprestadas por produto: cada empréstimo sorteia um posto de popularidade (Zipf) e o
+    // posto é espalhado pelos índices para que os populares não sejam os primeiros ids
+    private static int[] distribuirEmprestimos(ParametrosGeracao parametros, SplittableRandom random) {
+        int[] emprestados = new int[parametros.produtos()];
+        if (parametros.produtos() == 0) {
+            return emprestados;
+        }
+        Zipf popularidade = new Zipf(parametros.produtos(), 1.0);
+        for (int i = 0; i < parametros.emprestimos(); i++) {
+            int posto = popularidade.amostra(random);
+            emprestados[(int) ((posto - 1) * PRIMO_EMBARALHAMENTO % parametros.produtos())]++;
+        }
+        return emprestados;
+    }
+
+    private void inserirProdutos(int inicio, int fim, SplittableRandom random, String lote, LocalDateTime agora,
+                                 int[] emprestados, List<Referencia> categorias, List<Referencia> marcas,
+                                 List<Referencia> localizacoes) {
+        Zipf zipfCategorias = new Zipf(categorias.size(), 1.2);
+        Zipf zipfMarcas = marcas.isEmpty() ? null : new Zipf(marcas.size(), 1.0);
+        Zipf zipfLocalizacoes = localizacoes.isEmpty() ? null : new Zipf(localizacoes.size(), 0.8);
+        List<Object[]> linhas = new ArrayList<>(LINHAS_POR_INSERT);
+
+        for (int i = inicio; i < fim; i++) {
+            Referencia categoria = categorias.get(zipfCategorias.amostra(random) - 1);
+            // 10% sem marca (itens genéricos)
+            Referencia marca = zipfMarcas == null || random.nextInt(10) == 0
+                    ? null : marcas.get(zipfMarcas.amostra(random) - 1);
+            Long localizacao = zipfLocalizacoes == null
+                    ? null : localizacoes.get(zipfLocalizacoes.amostra(random) - 1).id();
+            String modelo = MODELOS[random.nextInt(MODELOS.length)] + " " + (100 + random.nextInt(900));
+
+            // 70% itens únicos (notebook, monitor), o resto com estoque de 2 a 20
+            int base = random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(19);
+            int total = Math.max(base, emprestados[i]);
+            LocalDateTime aquisicao = agora.minusMinutes(random.nextLong(5L * 365 * 24 * 60));
+
+            linhas.add(new Object[] {
+                    categoria.nome() + (marca == null ? "" : " " + marca.nome()) + " " + modelo,
+                    "PAT-" + lote + "-" + i,
+                    "SN" + lote + Long.toString(random.nextLong(1L << 40), 36).toUpperCase() + i,
+                    categoria.id(),
+                    new SqlParameterValue(Types.BIGINT, marca == null ? null : marca.id()),
+                    modelo,
+                    new SqlParameterValue(Types.BIGINT, localizacao),
+                    total,
+                    total - emprestados[i],
+                    ESTADOS[sortear(PESOS_ESTADOS, random)].name(),
+                    aquisicao,
+                    aquisicao.plusYears(1 + random.nextInt(3)),
+                    random.nextInt(100) < 95,
+                    aquisicao,
+                    aquisicao });
+            if (linhas.size() == LINHAS_POR_INSERT) {
+                gravar(INSERT_PRODUTOS, VALORES_PRODUTO, linhas);
+            }
+        }
+        gravar(INSERT_PRODUTOS, VALORES_PRODUTO, linhas);
+    }
+
+    // ============ USUÁRIOS ============
+
+    private void inserirUsuarios(int inicio, int fim, SplittableRandom random, String lote, LocalDateTime agora) {
+        Zipf zipfSobrenomes = new Zipf(SOBRENOMES.length, 1.0);
+        Zipf zipfDepartamentos = new Zipf(DEPARTAMENTOS.length, 1.0);
+        List<Object[]> linhas = new ArrayList<>(LINHAS_POR_INSERT);
+
+        for (int i = inicio; i < fim; i++) {
+            int nome = random.nextInt(NOMES.length);
+            int sobrenome = zipfSobrenomes.amostra(random) - 1;
+            LocalDateTime criacao = agora.minusMinutes(random.nextLong(5L * 365 * 24 * 60));
+
+            linhas.add(new Object[] {
+                    NOMES[nome] + " " + SOBRENOMES[sobrenome],
+                    (NOMES_EMAIL[nome] + "." + SOBRENOMES_EMAIL[sobrenome] + "." + lote + i + "@empresa.com.br")
+                            .toLowerCase(),
+                    "M" + lote + "-" + i,
+                    DEPARTAMENTOS[zipfDepartamentos.amostra(random) - 1],
+                    CARGOS[sortear(PESOS_CARGOS, random)],
+                    String.format("(11) 9%04d-%04d", random.nextInt(10_000), random.nextInt(10_000)),
+                    random.nextInt(100) < 97,
+                    criacao,
+                    criacao });
+            if (linhas.size() == LINHAS_POR_INSERT) {
+                gravar(INSERT_USUARIOS, VALORES_USUARIO, linhas);
+            }
+        }
+        gravar(INSERT_USUARIOS, VALORES_USUARIO, linhas);
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    // Divide [0, total) em tarefas de LINHAS_POR_TAREFA; com uma thread roda tudo na thread atual
+    // (e portanto na transação dela, se houver)
+    private void inserirEmParalelo(String tabela, int total, ParametrosGeracao parametros, TarefaInsercao tarefa) {
+        if (total <= 0) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        AtomicLong inseridos = new AtomicLong();
+        List<Runnable> tarefas = new ArrayList<>();
+        for (int de = 0, indice = 0; de < total; de += LINHAS_POR_TAREFA, indice++) {
+            int primeiro = de;
+            int ultimo = Math.min(total, de + LINHAS_POR_TAREFA);
+            long semente = parametros.semente() ^ ((tabela.hashCode() * 31L + indice) * 0x9E3779B97F4A7C15L);
+            tarefas.add(() -> {
+                tarefa.inserir(primeiro, ultimo, new SplittableRandom(semente));
+                log.info("{}: {}/{}", tabela, inseridos.addAndGet(ultimo - primeiro), total);
+            });
+        }
+
+        if (parametros.threads() <= 1) {
+            tarefas.forEach(Runnable::run);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(parametros.threads());
+            try {
+                List<Future<?>> futuros = tarefas.stream().<Future<?>>map(executor::submit).toList();
+                for (Future<?> futuro : futuros) {
+                    futuro.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Geração de " + tabela + " interrompida", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha ao gerar " + tabela, e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        log.info("{}: {} linhas em {} s ({} linhas/s)", tabela, total, String.format("%.1f", segundos),
+                Math.round(total / Math.max(segundos, 0.001)));
+    }
+
+    private void gravar(String insert, String valores, List<Object[]> linhas) {
+        if (linhas.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(insert.length() + linhas.size() * (valores.length() + 2));
+        sql.append(insert).append(" VALUES ");
+        Object[] argumentos = new Object[linhas.size() * linhas.get(0).length];
+        int posicao = 0;
+        for (int i = 0; i < linhas.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(valores);
+            for (Object valor : linhas.get(i)) {
+                argumentos[posicao++] = valor;
+            }
+        }
+        jdbc.update(sql.toString(), argumentos);
+        linhas.clear();
+    }
+
+    // Estatísticas do planejador atualizadas para as consultas logo após a carga
+    private void atualizarEstatisticas() {
+        String banco = jdbc.execute((ConnectionCallback<String>) conexao ->
+                conexao.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equalsIgnoreCase(banco)) {
+            for (String tabela : List.of("categorias", "marcas", "localizacoes", "produtos", "usuarios")) {
+                jdbc.execute("ANALYZE " + tabela);
+            }
+        }
+    }
+
+    private static int sortear(int[] pesos, SplittableRandom random) {
+        int soma = 0;
+        for (int peso : pesos) {
+            soma += peso;
+        }
+        int sorteado = random.nextInt(soma);
+        for (int i = 0; i < pesos.length; i++) {
+            sorteado -= pesos[i];
+            if (sorteado < 0) {
+                return i;
+            }
+        }
+        return pesos.length - 1;
+    }
+
+    private static String[] semAcentos(String[] valores) {
+        String[] resultado = new String[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            resultado[i] = Normalizer.normalize(valores[i], Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        }
+        return resultado;
+    }
+
+    private record Referencia(Long id, String nome) {
+    }
+
+    @FunctionalInterface
+    private interface TarefaInsercao {
+        void inserir(int inicio, int fim, SplittableRandom random);
+    }
+}
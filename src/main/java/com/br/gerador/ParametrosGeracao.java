@@ -0,0 +1,16 @@
+package com.br.gerador;
+
+// Volumes de uma execução do gerador. "lote" identifica a execução e entra nos nomes, códigos,
+// emails e matrículas gerados, de modo que rodadas sucessivas sobre o mesmo banco não colidem
+// nas restrições únicas; "emprestimos" é o total de unidades emprestadas distribuído entre os produtos.
+public record ParametrosGeracao(
+        int produtos,
+        int usuarios,
+        int categorias,
+        int marcas,
+        int localizacoes,
+        int emprestimos,
+        int threads,
+        long semente,
+        String lote) {
+}
@@ -0,0 +1,61 @@
+package com.br.gerador;
+
+import java.util.SplittableRandom;
+
+// Amostrador da distribuição de Zipf em [1, n]: o posto k sai com probabilidade proporcional a
+// 1 / k^expoente. Rejeição-inversão (Hörmann e Derflinger), sem tabela: memória constante
+// mesmo com milhões de postos. Imutável; cada thread passa o seu gerador aleatório.
+final class Zipf {
+
+    private final int n;
+    private final double expoente;
+    private final double integralX1;
+    private final double integralN;
+    private final double limiteAceitacao;
+
+    Zipf(int n, double expoente) {
+        if (n < 1 || expoente <= 0) {
+            throw new IllegalArgumentException("Zipf requer n >= 1 e expoente > 0");
+        }
+        this.n = n;
+        this.expoente = expoente;
+        this.integralX1 = integral(1.5) - 1.0;
+        this.integralN = integral(n + 0.5);
+        this.limiteAceitacao = 2.0 - integralInversa(integral(2.5) - h(2.0));
+    }
+
+    // Posto entre 1 (mais frequente) e n
+    int amostra(SplittableRandom random) {
+        while (true) {
+            double u = integralN + random.nextDouble() * (integralX1 - integralN);
+            double x = integralInversa(u);
+            int k = (int) Math.max(1, Math.min(n, Math.round(x)));
+            if (k - x <= limiteAceitacao || u >= integral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-expoente * Math.log(x));
+    }
+
+    // Primitiva de h: (x^(1-s) - 1) / (1 - s), estável quando s ~ 1
+    private double integral(double x) {
+        double logX = Math.log(x);
+        return expm1Sobre((1.0 - expoente) * logX) * logX;
+    }
+
+    private double integralInversa(double x) {
+        double t = Math.max(-1.0, x * (1.0 - expoente));
+        return Math.exp(log1pSobre(t) * x);
+    }
+
+    private static double log1pSobre(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    private static double expm1Sobre(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+    }
+}
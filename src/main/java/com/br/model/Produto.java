@@ -2,14 +2,17 @@ package com.br.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.NaturalId;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "produtos")
 public class Produto {
     
+    // Sequência com pool de 50 ids: permite INSERT em lote JDBC (IDENTITY impede o batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produtos_seq")
+    @SequenceGenerator(name = "produtos_seq", sequenceName = "produtos_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Nome é obrigatório")
@@ -23,6 +26,9 @@ public class Produto {
     
     @NotBlank(message = "Código patrimonial/SN é obrigatório")
     @Size(min = 3, max = 50, message = "Código deve ter entre 3 e 50 caracteres")
+    // Chave natural usada pelos leitores de código de barras (cache em CacheProdutos);
+    // mutável porque o código patrimonial pode ser corrigido na edição
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 50, unique = true)
     private String codigo; // Código patrimonial ou Número de Série
     
@@ -30,11 +36,12 @@ public class Produto {
     private String numeroSerie; // Número de série do equipamento
     
     // ALTERAÇÃO AQUI: Agora é relação ManyToOne, não String
-    @ManyToOne
+    // LAZY: listagens usam ProdutoResumo; o detalhe busca as associações com @EntityGraph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "categoria_id", nullable = false)
     private Categoria categoria; // Mudou de String para Categoria
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "marca_id")
     private Marca marca;
     
@@ -49,7 +56,7 @@ public class Produto {
     @Column(name = "quantidade_disponivel", nullable = false)
     private Integer quantidadeDisponivel = 1; // Quantos estão disponíveis para empréstimo
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "localizacao_id")
     private Localizacao localizacao;
     
@@ -74,6 +81,12 @@ public class Produto {
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
     
+    // Controle de concorrência otimista (default 0 para linhas já existentes). Nulo até o
+    // persist: é por ele que o Spring Data reconhece a entidade nova e usa persist em vez de merge
+    @Version
+    @Column(name = "versao", nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long versao;
+    
     // Construtor padrão
     public Produto() {
         this.dataCriacao = LocalDateTime.now();
@@ -172,4 +185,7 @@ public class Produto {
     public void setDataAtualizacao(LocalDateTime dataAtualizacao) { 
         this.dataAtualizacao = dataAtualizacao; 
     }
+    
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
 }
\ No newline at end of file
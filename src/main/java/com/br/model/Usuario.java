@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -52,6 +53,12 @@ public class Usuario {
 	@Column(name="data_atualizacao")
 	private LocalDateTime dataAtualzacao;
 	
+	//Controle de concorrência otimista (default 0 para linhas já existentes). Nulo até o
+	//persist: é por ele que o Spring Data reconhece a entidade nova e usa persist em vez de merge
+	@Version
+	@Column(name="versao", nullable = false, columnDefinition = "bigint default 0 not null")
+	private Long versao;
+	
 	public Usuario () {
 		dataCriacao=LocalDateTime.now();
 	}
@@ -107,6 +114,9 @@ public class Usuario {
 	
 	public LocalDateTime getDataAtualizacao() {return dataAtualzacao;}
 	public void setDataAtualizacao(LocalDateTime dataAtualizacao) {this.dataAtualzacao= dataAtualizacao;}
+	
+	public Long getVersao() {return versao;}
+	public void setVersao(Long versao) {this.versao = versao;}
 		
 	
 }
@@ -1,61 +1,169 @@
 package com.br.repository;
 
+import com.br.dto.ContagemCategoria;
+import com.br.dto.ProdutoResumo;
+import com.br.dto.TotaisInventario;
 import com.br.model.Produto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, ProdutoRepositoryCustom {
+    
+    // Início das consultas de listagem: projeta ProdutoResumo com as associações no mesmo SELECT
+    // (LEFT JOIN, então produtos sem marca/localização continuam na lista)
+    String SELECT_RESUMO = "SELECT new com.br.dto.ProdutoResumo(p.id, p.nome, p.codigo, p.modelo, " +
+           "c.nome, m.nome, l.nome, p.quantidadeTotal, p.quantidadeDisponivel, p.estadoConservacao, p.ativo) " +
+           "FROM Produto p LEFT JOIN p.categoria c LEFT JOIN p.marca m LEFT JOIN p.localizacao l ";
     
     // ============ BUSCAS BÁSICAS ============
+    // Detalhe: entidade completa com as associações (LAZY) carregadas no mesmo SELECT
+    @EntityGraph(attributePaths = {"categoria", "marca", "localizacao"})
+    @Query("SELECT p FROM Produto p WHERE p.id = :id")
+    Optional<Produto> buscarDetalhePorId(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = {"categoria", "marca", "localizacao"})
     Optional<Produto> findByCodigo(String codigo);
+    
+    @EntityGraph(attributePaths = {"categoria", "marca", "localizacao"})
     Optional<Produto> findByNumeroSerie(String numeroSerie);
-    List<Produto> findByAtivoTrue();
-    List<Produto> findByNomeContainingIgnoreCase(String nome);
-    List<Produto> findByCategoria(String categoria);
-    List<Produto> findByMarca(String marca);
-    List<Produto> findByLocalizacao(String localizacao);
-    List<Produto> findByEstadoConservacao(String estadoConservacao);
+    
+    // ============ LISTAGENS (PROJEÇÃO) ============
+    @Query(SELECT_RESUMO + "ORDER BY p.id")
+    List<ProdutoResumo> listarResumos();
+    
+    @Query(SELECT_RESUMO + "WHERE p.ativo = true ORDER BY p.id")
+    List<ProdutoResumo> listarResumosAtivos();
+    
+    @Query(SELECT_RESUMO + "WHERE p.estadoConservacao = :estadoConservacao ORDER BY p.id")
+    List<ProdutoResumo> listarResumosPorEstadoConservacao(@Param("estadoConservacao") String estadoConservacao);
+    
+    // Recarrega resumos pelos ids vindos da busca (índice em memória ou pg_trgm)
+    @Query(SELECT_RESUMO + "WHERE p.id IN :ids")
+    List<ProdutoResumo> listarResumosPorIds(@Param("ids") Collection<Long> ids);
+    
+    // ============ PAGINAÇÃO POR CURSOR (KEYSET) ============
+    @Query(SELECT_RESUMO + "WHERE p.id > :cursor ORDER BY p.id")
+    List<ProdutoResumo> listarAposCursor(@Param("cursor") Long cursor, Pageable limite);
+    
+    @Query(SELECT_RESUMO + "WHERE p.id > :cursor AND p.ativo = true ORDER BY p.id")
+    List<ProdutoResumo> listarAtivosAposCursor(@Param("cursor") Long cursor, Pageable limite);
+    
+    // Carga do índice de busca em memória: só os campos pesquisáveis, sem as associações
+    @Query("SELECT p.id, p.nome, p.codigo, p.numeroSerie, p.modelo FROM Produto p " +
+           "WHERE p.id > :cursor AND p.ativo = true ORDER BY p.id")
+    List<Object[]> listarTextosAtivosAposCursor(@Param("cursor") Long cursor, Pageable limite);
+    
+    // ============ BUSCAS SEM DIFERENCIAR MAIÚSCULAS ============
+    // Atendidas pelo índice funcional (lower(modelo), id) de schema-postgresql.sql
+    @Query(SELECT_RESUMO + "WHERE LOWER(p.modelo) = LOWER(:modelo) ORDER BY p.id")
+    List<ProdutoResumo> buscarPorModelo(@Param("modelo") String modelo);
+    
+    @Query(SELECT_RESUMO + "WHERE LOWER(p.modelo) = LOWER(:modelo) AND p.id > :cursor ORDER BY p.id")
+    List<ProdutoResumo> buscarPorModeloAposCursor(@Param("modelo") String modelo, @Param("cursor") Long cursor,
+                                            Pageable limite);
     
     // ============ VERIFICAÇÕES ============
     boolean existsByCodigo(String codigo);
     boolean existsByNumeroSerie(String numeroSerie);
     
+    // Carga dos filtros de Bloom de FiltrosExistencia
+    @Query("SELECT p.codigo FROM Produto p")
+    List<String> listarCodigos();
+    
+    @Query("SELECT p.numeroSerie FROM Produto p WHERE p.numeroSerie IS NOT NULL")
+    List<String> listarNumerosSerie();
+    
+    // Verificação de duplicidade em lote (importação): uma consulta para vários códigos/números de série
+    @Query("SELECT p.codigo, p.numeroSerie FROM Produto p WHERE p.codigo IN :codigos OR p.numeroSerie IN :numerosSerie")
+    List<Object[]> findCodigosENumerosSerieExistentes(
+            @Param("codigos") Collection<String> codigos,
+            @Param("numerosSerie") Collection<String> numerosSerie);
+    
     // ============ CONSULTAS SIMPLES ============
-    @Query("SELECT p FROM Produto p WHERE p.quantidadeDisponivel < :quantidadeMinima AND p.ativo = true")
-    List<Produto> findProdutosComBaixaDisponibilidade(@Param("quantidadeMinima") Integer quantidadeMinima);
+    @Query(SELECT_RESUMO + "WHERE p.quantidadeDisponivel < :quantidadeMinima AND p.ativo = true ORDER BY p.id")
+    List<ProdutoResumo> findProdutosComBaixaDisponibilidade(@Param("quantidadeMinima") Integer quantidadeMinima);
     
-    @Query("SELECT p FROM Produto p WHERE p.quantidadeDisponivel = 0 AND p.ativo = true")
-    List<Produto> findProdutosSemDisponibilidade();
+    @Query(SELECT_RESUMO + "WHERE p.quantidadeDisponivel = 0 AND p.ativo = true ORDER BY p.id")
+    List<ProdutoResumo> findProdutosSemDisponibilidade();
     
-    @Query("SELECT p FROM Produto p WHERE p.quantidadeDisponivel > 0 AND p.ativo = true ORDER BY p.nome")
-    List<Produto> findProdutosDisponiveisParaEmprestimo();
+    @Query(SELECT_RESUMO + "WHERE p.quantidadeDisponivel > 0 AND p.ativo = true ORDER BY p.nome, p.id")
+    List<ProdutoResumo> findProdutosDisponiveisParaEmprestimo();
+    
+    // ============ MOVIMENTAÇÃO ATÔMICA ============
+    // Retornam o número de linhas afetadas: 0 indica que a condição não foi atendida.
+    // Incrementam a versão para que atualizações otimistas concorrentes detectem a mudança
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.quantidadeDisponivel = p.quantidadeDisponivel - :quantidade, " +
+           "p.dataAtualizacao = LOCAL DATETIME, p.versao = p.versao + 1 " +
+           "WHERE p.id = :id AND p.ativo = true AND p.quantidadeDisponivel >= :quantidade")
+    int decrementarDisponibilidade(@Param("id") Long id, @Param("quantidade") Integer quantidade);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.quantidadeDisponivel = p.quantidadeDisponivel + :quantidade, " +
+           "p.dataAtualizacao = LOCAL DATETIME, p.versao = p.versao + 1 " +
+           "WHERE p.id = :id AND p.quantidadeDisponivel + :quantidade <= p.quantidadeTotal")
+    int incrementarDisponibilidade(@Param("id") Long id, @Param("quantidade") Integer quantidade);
+    
+    // Empréstimo em lote: as entidades alteradas voltam na resposta, então já vêm com as associações
+    @EntityGraph(attributePaths = {"categoria", "marca", "localizacao"})
+    @Query("SELECT p FROM Produto p WHERE p.id IN :ids ORDER BY p.id")
+    List<Produto> buscarPorIdsEmOrdem(@Param("ids") Collection<Long> ids);
     
     // ============ BUSCA GERAL ============
-    @Query("SELECT p FROM Produto p WHERE " +
-           "(LOWER(p.nome) LIKE LOWER(CONCAT('%', :termo, '%')) OR " +
-           "LOWER(p.codigo) LIKE LOWER(CONCAT('%', :termo, '%')) OR " +
-           "LOWER(p.numeroSerie) LIKE LOWER(CONCAT('%', :termo, '%'))) AND " +
-           "p.ativo = true")
-    List<Produto> buscarPorTermoGeral(@Param("termo") String termo);
+    // Fallback portátil (H2 nos testes ou PostgreSQL sem pg_trgm). O padrão já vem em
+    // minúsculas, com % e _ escapados e envolvido em '%'
+    @Query(SELECT_RESUMO + "WHERE " +
+           "(LOWER(p.nome) LIKE :padrao ESCAPE '\\' OR " +
+           "LOWER(p.codigo) LIKE :padrao ESCAPE '\\' OR " +
+           "LOWER(p.numeroSerie) LIKE :padrao ESCAPE '\\') AND " +
+           "p.ativo = true ORDER BY p.nome, p.id")
+    List<ProdutoResumo> buscarPorTermoGeral(@Param("padrao") String padrao, Pageable limite);
+    
+    // Usa os índices GiST pg_trgm sobre lower(nome), lower(codigo) e lower(numero_serie) criados
+    // em schema-postgresql.sql; devolve os ids ordenados pela maior similaridade. Cada coluna traz
+    // só os :limite mais próximos do termo (<-> = 1 - similarity, lido em ordem pelo índice), então
+    // o ranking nunca passa de 3 * :limite candidatos, por mais linhas que o LIKE encontre.
+    // Empates exatos de similaridade no corte de uma coluna não são desempatados pelo id
+    @Query(value = "SELECT c.id FROM (" +
+           "(SELECT p.id, similarity(lower(p.nome), :termo) AS similaridade FROM produtos p " +
+           "WHERE p.ativo = true AND lower(p.nome) LIKE :padrao " +
+           "ORDER BY lower(p.nome) <-> :termo LIMIT :limite) " +
+           "UNION ALL " +
+           "(SELECT p.id, similarity(lower(p.codigo), :termo) FROM produtos p " +
+           "WHERE p.ativo = true AND lower(p.codigo) LIKE :padrao " +
+           "ORDER BY lower(p.codigo) <-> :termo LIMIT :limite) " +
+           "UNION ALL " +
+           "(SELECT p.id, similarity(lower(p.numero_serie), :termo) FROM produtos p " +
+           "WHERE p.ativo = true AND lower(p.numero_serie) LIKE :padrao " +
+           "ORDER BY lower(p.numero_serie) <-> :termo LIMIT :limite)" +
+           ") c GROUP BY c.id ORDER BY max(c.similaridade) DESC, c.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Long> buscarIdsPorTrigrama(@Param("termo") String termo, @Param("padrao") String padrao,
+                                    @Param("limite") int limite);
     
     // ============ FILTROS MÚLTIPLOS ============
-    @Query("SELECT p FROM Produto p WHERE " +
-           "(:categoria IS NULL OR p.categoria = :categoria) AND " +
-           "(:marca IS NULL OR p.marca = :marca) AND " +
-           "(:estadoConservacao IS NULL OR p.estadoConservacao = :estadoConservacao) AND " +
-           "p.ativo = true")
-    List<Produto> findProdutosPorFiltros(
-            @Param("categoria") String categoria,
-            @Param("marca") String marca,
-            @Param("estadoConservacao") String estadoConservacao);
+    // filtrarAtivos(FiltroProduto) vem de ProdutoRepositoryCustom
     
     // ============ ESTATÍSTICAS ============
-    @Query("SELECT p.categoria, COUNT(p) FROM Produto p WHERE p.ativo = true GROUP BY p.categoria")
-    List<Object[]> contarProdutosPorCategoria();
+    // Agregações projetadas direto em records: nenhuma entidade é carregada
+    @Query("SELECT new com.br.dto.ContagemCategoria(c.id, c.nome, COUNT(p)) " +
+           "FROM Produto p JOIN p.categoria c WHERE p.ativo = true GROUP BY c.id, c.nome")
+    List<ContagemCategoria> contarProdutosPorCategoria();
+    
+    @Query("SELECT new com.br.dto.TotaisInventario(" +
+           "COALESCE(SUM(p.quantidadeTotal), 0), " +
+           "COALESCE(SUM(p.quantidadeDisponivel), 0), " +
+           "COALESCE(SUM(p.quantidadeTotal - p.quantidadeDisponivel), 0)) " +
+           "FROM Produto p WHERE p.ativo = true")
+    TotaisInventario calcularTotaisInventario();
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.br.repository;
+
+import com.br.dto.FiltroProduto;
+import com.br.dto.ProdutoResumo;
+
+import java.util.List;
+
+// Consultas montadas em tempo de execução (implementadas em ProdutoRepositoryCustomImpl)
+public interface ProdutoRepositoryCustom {
+
+    List<ProdutoResumo> filtrarAtivos(FiltroProduto filtro);
+}
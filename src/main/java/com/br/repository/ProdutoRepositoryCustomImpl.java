@@ -0,0 +1,48 @@
+package com.br.repository;
+
+import com.br.dto.FiltroProduto;
+import com.br.dto.ProdutoResumo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProdutoRepositoryCustomImpl implements ProdutoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Só entram no WHERE os critérios informados: sem "(:x IS NULL OR ...)", que impede o
+    // PostgreSQL de escolher o índice no plano genérico. As comparações usam as colunas de FK
+    // (p.categoria.id não faz join) e são atendidas pelos índices (fk, ativo, id)
+    @Override
+    public List<ProdutoResumo> filtrarAtivos(FiltroProduto filtro) {
+        StringBuilder jpql = new StringBuilder(ProdutoRepository.SELECT_RESUMO + "WHERE p.ativo = true");
+        Map<String, Object> parametros = new HashMap<>();
+
+        if (filtro.categoriaId() != null) {
+            jpql.append(" AND p.categoria.id = :categoriaId");
+            parametros.put("categoriaId", filtro.categoriaId());
+        }
+        if (filtro.marcaId() != null) {
+            jpql.append(" AND p.marca.id = :marcaId");
+            parametros.put("marcaId", filtro.marcaId());
+        }
+        if (filtro.localizacaoId() != null) {
+            jpql.append(" AND p.localizacao.id = :localizacaoId");
+            parametros.put("localizacaoId", filtro.localizacaoId());
+        }
+        if (filtro.estadoConservacao() != null) {
+            jpql.append(" AND p.estadoConservacao = :estadoConservacao");
+            parametros.put("estadoConservacao", filtro.estadoConservacao());
+        }
+        jpql.append(" ORDER BY p.id");
+
+        TypedQuery<ProdutoResumo> consulta = entityManager.createQuery(jpql.toString(), ProdutoResumo.class);
+        parametros.forEach(consulta::setParameter);
+        return consulta.getResultList();
+    }
+}
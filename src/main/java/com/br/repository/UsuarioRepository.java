@@ -1,6 +1,9 @@
 package com.br.repository;
 
+import com.br.dto.TotaisUsuarios;
 import com.br.model.Usuario;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,9 +27,34 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u FROM Usuario u WHERE u.departamento = :departamento AND u.ativo = true")
     List<Usuario> findByDepartamentoAndAtivoTrue(@Param("departamento") String departamento);
     
-    @Query(value = "SELECT * FROM usuarios WHERE LOWER(nome) LIKE LOWER(CONCAT('%', :nome, '%'))", 
-           nativeQuery = true)
-    List<Usuario> buscarPorNomeSimilar(@Param("nome") String nome);
+    // ⭐⭐ BUSCA GERAL ⭐⭐
+    // Prefixo em email/matrícula (índices text_pattern_ops) e trecho no nome (índice GIN pg_trgm),
+    // todos sobre lower() em schema-postgresql.sql. Ordem: email/matrícula igual ao termo,
+    // depois com o prefixo, depois pela similaridade do nome
+    @Query(value = "SELECT u.* FROM usuarios u WHERE u.ativo = true AND (" +
+           "lower(u.email) LIKE :prefixo OR lower(u.matricula) LIKE :prefixo OR lower(u.nome) LIKE :padrao) " +
+           "ORDER BY CASE WHEN lower(u.email) = :termo OR lower(u.matricula) = :termo THEN 0 " +
+           "WHEN lower(u.email) LIKE :prefixo OR lower(u.matricula) LIKE :prefixo THEN 1 ELSE 2 END, " +
+           "similarity(lower(u.nome), :termo) DESC, u.id", nativeQuery = true)
+    Slice<Usuario> buscarPorTermoRanqueado(@Param("termo") String termo, @Param("prefixo") String prefixo,
+                                           @Param("padrao") String padrao, Pageable pagina);
+    
+    // Fallback portátil (H2 nos testes ou PostgreSQL sem pg_trgm)
+    @Query("SELECT u FROM Usuario u WHERE u.ativo = true AND (" +
+           "LOWER(u.email) LIKE :prefixo ESCAPE '\\' OR LOWER(u.matricula) LIKE :prefixo ESCAPE '\\' OR " +
+           "LOWER(u.nome) LIKE :padrao ESCAPE '\\') ORDER BY u.nome, u.id")
+    Slice<Usuario> buscarPorTermoGeral(@Param("prefixo") String prefixo, @Param("padrao") String padrao,
+                                       Pageable pagina);
+    
+    Slice<Usuario> findByAtivoTrueOrderByNomeAscIdAsc(Pageable pagina);
+    
+    // Atendidas pelo índice funcional (lower(cargo), id) de schema-postgresql.sql
+    @Query("SELECT u FROM Usuario u WHERE LOWER(u.cargo) = LOWER(:cargo) ORDER BY u.id")
+    List<Usuario> buscarPorCargo(@Param("cargo") String cargo);
+    
+    @Query("SELECT u FROM Usuario u WHERE LOWER(u.cargo) = LOWER(:cargo) AND u.id > :cursor ORDER BY u.id")
+    List<Usuario> buscarPorCargoAposCursor(@Param("cargo") String cargo, @Param("cursor") Long cursor,
+                                           Pageable limite);
     
     // ⭐⭐ MÉTODOS DE BUSCA (Spring cria automaticamente) ⭐⭐
     List<Usuario> findByNomeContainingIgnoreCase(String nome);
@@ -37,8 +65,20 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u.departamento, COUNT(u) FROM Usuario u WHERE u.ativo = true GROUP BY u.departamento")
     List<Object[]> contarAtivosPorDepartamento();
     
+    @Query("SELECT new com.br.dto.TotaisUsuarios(COUNT(u), " +
+           "COUNT(u) FILTER (WHERE u.ativo = true), COUNT(u) FILTER (WHERE u.ativo = false)) " +
+           "FROM Usuario u")
+    TotaisUsuarios calcularTotaisUsuarios();
+    
     // ⭐⭐ VERIFICAÇÕES ⭐⭐
     boolean existsByEmail(String email);
     boolean existsByMatricula(String matricula);
+    
+    // Carga dos filtros de Bloom de FiltrosExistencia
+    @Query("SELECT u.email FROM Usuario u")
+    List<String> listarEmails();
+    
+    @Query("SELECT u.matricula FROM Usuario u WHERE u.matricula IS NOT NULL")
+    List<String> listarMatriculas();
     long countByAtivoTrue();
 }
\ No newline at end of file
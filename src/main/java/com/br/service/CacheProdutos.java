@@ -0,0 +1,170 @@
+package com.br.service;
+
+import com.br.model.Produto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Cache de leitura das consultas por código e número de série (leitores de código de barras).
+// Guarda o detalhe do produto por id, com as chaves naturais apontando para o id, e descarta os
+// menos usados acima da capacidade. Os serviços invalidam o produto após o commit de cada escrita
+// (alteração, desativação, empréstimo, devolução) e limpam tudo quando categorias, marcas ou
+// localizações mudam, já que o detalhe inclui essas associações. Códigos inexistentes não são guardados.
+// Métricas: inventario.cache.produtos.acertos e inventario.cache.produtos.faltas.
+// Os produtos devolvidos são compartilhados entre requisições e não devem ser alterados.
+@Component
+public class CacheProdutos {
+
+    private final int capacidade;
+    private final Counter acertos;
+    private final Counter faltas;
+    private final Map<Long, Entrada> porId;
+    private final Map<String, Long> idPorCodigo = new HashMap<>();
+    private final Map<String, Long> idPorNumeroSerie = new HashMap<>();
+    // Relógio das invalidações: uma leitura do banco não é guardada se o produto lido foi
+    // invalidado (ou o cache limpo) depois do instante em que ela começou. A invalidação de um
+    // produto não impede guardar os outros, então empréstimos frequentes não esvaziam o cache
+    private long relogio;
+    private long ultimaLimpeza;
+    // Instante da última invalidação de cada produto; só interessa às leituras em andamento
+    // e é descartado quando nenhuma leitura iniciada antes dela continua aberta
+    private final Map<Long, Long> invalidadoEm = new HashMap<>();
+    // Instante de início das leituras em andamento -> quantidade
+    private final TreeMap<Long, Integer> leiturasEmAndamento = new TreeMap<>();
+
+    public CacheProdutos(@Value("${inventario.cache.produtos.capacidade:10000}") int capacidade,
+                         MeterRegistry meterRegistry) {
+        this.capacidade = capacidade;
+        this.acertos = meterRegistry.counter("inventario.cache.produtos.acertos");
+        this.faltas = meterRegistry.counter("inventario.cache.produtos.faltas");
+        // Ordem de acesso: o primeiro da lista é o menos usado recentemente
+        this.porId = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public Optional<Produto> porCodigo(String codigo, Supplier<Optional<Produto>> carregador) {
+        return buscar(idPorCodigo, codigo, carregador);
+    }
+
+    public Optional<Produto> porNumeroSerie(String numeroSerie, Supplier<Optional<Produto>> carregador) {
+        return buscar(idPorNumeroSerie, numeroSerie, carregador);
+    }
+
+    // ============ INVALIDAÇÃO ============
+
+    public void invalidarAposCommit(Long id) {
+        TransacaoUtils.aposCommit(() -> invalidar(id));
+    }
+
+    public void limparAposCommit() {
+        TransacaoUtils.aposCommit(this::limpar);
+    }
+
+    public synchronized void invalidar(Long id) {
+        relogio++;
+        if (!leiturasEmAndamento.isEmpty()) {
+            invalidadoEm.put(id, relogio);
+        }
+        retirar(id);
+    }
+
+    public synchronized void limpar() {
+        relogio++;
+        ultimaLimpeza = relogio;
+        invalidadoEm.clear();
+        porId.clear();
+        idPorCodigo.clear();
+        idPorNumeroSerie.clear();
+    }
+
+    public synchronized int tamanho() {
+        return porId.size();
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private Optional<Produto> buscar(Map<String, Long> indice, String chave, Supplier<Optional<Produto>> carregador) {
+        if (capacidade <= 0 || chave == null) {
+            return carregador.get();
+        }
+
+        long inicio;
+        synchronized (this) {
+            Long id = indice.get(chave);
+            Entrada entrada = id == null ? null : porId.get(id);
+            if (entrada != null) {
+                acertos.increment();
+                return Optional.of(entrada.produto());
+            }
+            inicio = relogio;
+            leiturasEmAndamento.merge(inicio, 1, Integer::sum);
+        }
+
+        // Consulta ao banco fora do lock
+        faltas.increment();
+        Optional<Produto> produto = Optional.empty();
+        try {
+            produto = carregador.get();
+            return produto;
+        } finally {
+            concluirLeitura(produto.orElse(null), inicio);
+        }
+    }
+
+    private synchronized void concluirLeitura(Produto produto, long inicio) {
+        leiturasEmAndamento.merge(inicio, -1, (atual, menos) -> atual + menos == 0 ? null : atual + menos);
+        if (produto != null && ultimaLimpeza <= inicio && invalidadoEm.getOrDefault(produto.getId(), 0L) <= inicio) {
+            guardar(produto);
+        }
+
+        // Invalidações anteriores ao início da leitura mais antiga ainda aberta não barram mais nada
+        if (leiturasEmAndamento.isEmpty()) {
+            invalidadoEm.clear();
+        } else if (invalidadoEm.size() > Math.max(capacidade, 16)) {
+            long maisAntiga = leiturasEmAndamento.firstKey();
+            invalidadoEm.values().removeIf(instante -> instante <= maisAntiga);
+        }
+    }
+
+    // Chamado com o lock obtido
+    private void guardar(Produto produto) {
+        retirar(produto.getId());
+        Entrada entrada = new Entrada(produto, produto.getCodigo(), produto.getNumeroSerie());
+        porId.put(produto.getId(), entrada);
+        if (entrada.codigo() != null) {
+            idPorCodigo.put(entrada.codigo(), produto.getId());
+        }
+        if (entrada.numeroSerie() != null) {
+            idPorNumeroSerie.put(entrada.numeroSerie(), produto.getId());
+        }
+
+        if (porId.size() > capacidade) {
+            retirar(porId.keySet().iterator().next());
+        }
+    }
+
+    // Chamado com o lock obtido; remove o produto e as chaves naturais com que foi guardado
+    private void retirar(Long id) {
+        Entrada entrada = porId.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        if (entrada.codigo() != null) {
+            idPorCodigo.remove(entrada.codigo(), id);
+        }
+        if (entrada.numeroSerie() != null) {
+            idPorNumeroSerie.remove(entrada.numeroSerie(), id);
+        }
+    }
+
+    // Chaves copiadas na entrada: a remoção não depende do estado atual da entidade
+    private record Entrada(Produto produto, String codigo, String numeroSerie) {
+    }
+}
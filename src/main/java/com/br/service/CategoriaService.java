@@ -1,5 +1,6 @@
 package com.br.service;
 
+import com.br.exception.RecursoNaoEncontradoException;
 import com.br.model.Categoria;
 import com.br.repository.CategoriaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,32 +14,46 @@ public class CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
     
+    @Autowired
+    private CacheProdutos cacheProdutos;
+    
+    // Consultas atendidas em memória; recarregado após cada escrita
+    private final RegistroReferencia<Categoria> registro = new RegistroReferencia<>(
+        () -> categoriaRepository.findAll(), Categoria::getId, Categoria::getNome, Categoria::getAtivo);
+    
     public List<Categoria> findAll() {
-        return categoriaRepository.findAll();
+        return registro.todos();
     }
     
     public List<Categoria> findActive() {
-        return categoriaRepository.findByAtivoTrueOrderByNomeAsc();
+        return registro.ativos();
     }
     
     public List<Categoria> findCustom() {
-        return categoriaRepository.findByTipoSistemaFalseAndAtivoTrue();
+        return registro.filtrar(categoria -> !categoria.getTipoSistema() && categoria.getAtivo());
     }
     
     public List<Categoria> findSystem() {
-        return categoriaRepository.findByTipoSistemaTrue();
+        return registro.filtrar(Categoria::getTipoSistema);
     }
     
     public Optional<Categoria> findById(Long id) {
-        return categoriaRepository.findById(id);
+        return registro.porId(id);
+    }
+    
+    public Optional<Categoria> findByNome(String nome) {
+        return registro.porNome(nome);
     }
     
     public Categoria save(Categoria categoria) {
-        return categoriaRepository.save(categoria);
+        Categoria salva = categoriaRepository.save(categoria);
+        recarregarAposCommit();
+        return salva;
     }
     
     public void delete(Long id) {
         categoriaRepository.deleteById(id);
+        recarregarAposCommit();
     }
     
     public Categoria update(Long id, Categoria categoriaDetails) {
@@ -50,9 +65,11 @@ public class CategoriaService {
                     categoria.setDescricao(categoriaDetails.getDescricao());
                     categoria.setAtivo(categoriaDetails.getAtivo());
                 }
-                return categoriaRepository.save(categoria);
+                Categoria salva = categoriaRepository.save(categoria);
+                recarregarAposCommit();
+                return salva;
             })
-            .orElseThrow(() -> new RuntimeException("Categoria não encontrada"));
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Categoria não encontrada"));
     }
     
     // Soft delete para personalizadas, não permite excluir do sistema
@@ -61,7 +78,14 @@ public class CategoriaService {
             if (!categoria.getTipoSistema()) {
                 categoria.setAtivo(false);
                 categoriaRepository.save(categoria);
+                recarregarAposCommit();
             }
         });
     }
-}
\ No newline at end of file
+    
+    // O detalhe de produto em cache inclui a associação: é descartado junto com o registro
+    private void recarregarAposCommit() {
+        registro.recarregarAposCommit();
+        cacheProdutos.limparAposCommit();
+    }
+}
@@ -0,0 +1,150 @@
+package com.br.service;
+
+import com.br.dto.ContagemCategoria;
+import com.br.dto.TotaisInventario;
+import com.br.model.Produto;
+import com.br.repository.ProdutoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Totais do inventário mantidos em memória para o dashboard: itens e disponíveis dos produtos
+// ativos e quantidade de produtos ativos por categoria. Carregados na inicialização, atualizados
+// pelos serviços a cada escrita confirmada e reconciliados periodicamente com o banco, o que
+// corrige desvios de escritas concorrentes à própria reconciliação ou feitas fora dos serviços.
+// Métrica: inventario.contadores.divergencias (reconciliações que encontraram diferença).
+@Component
+public class ContadoresInventario {
+
+    private final ProdutoRepository produtoRepository;
+    private final MeterRegistry meterRegistry;
+    private final LongAdder totalItens = new LongAdder();
+    private final LongAdder totalDisponiveis = new LongAdder();
+    private volatile Map<Long, ContadorCategoria> porCategoria = new ConcurrentHashMap<>();
+    private volatile boolean pronto;
+
+    public ContadoresInventario(ProdutoRepository produtoRepository, MeterRegistry meterRegistry) {
+        this.produtoRepository = produtoRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Antes da primeira carga os serviços respondem pelo banco
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public TotaisInventario totais() {
+        long itens = totalItens.sum();
+        long disponiveis = totalDisponiveis.sum();
+        return new TotaisInventario(itens, disponiveis, itens - disponiveis);
+    }
+
+    public Map<String, Long> produtosPorCategoria() {
+        Map<String, Long> contagem = new HashMap<>();
+        for (ContadorCategoria contador : porCategoria.values()) {
+            long quantidade = contador.quantidade.sum();
+            if (quantidade > 0) {
+                contagem.merge(contador.nome, quantidade, Long::sum);
+            }
+        }
+        return contagem;
+    }
+
+    // ============ ATUALIZAÇÕES ============
+    // Chamadas após o commit; antes/depois nulos representam produto inexistente
+
+    public void aplicar(Situacao antes, Situacao depois) {
+        if (antes != null && antes.ativo()) {
+            somar(antes, -1);
+        }
+        if (depois != null && depois.ativo()) {
+            somar(depois, 1);
+        }
+    }
+
+    // Empréstimo (negativo) ou devolução (positivo) em produto ativo
+    public void movimentar(long deltaDisponiveis) {
+        totalDisponiveis.add(deltaDisponiveis);
+    }
+
+    private void somar(Situacao situacao, int sinal) {
+        totalItens.add((long) sinal * situacao.total());
+        totalDisponiveis.add((long) sinal * situacao.disponivel());
+        if (situacao.categoriaId() != null) {
+            porCategoria.computeIfAbsent(situacao.categoriaId(), id -> new ContadorCategoria(situacao.categoria()))
+                .quantidade.add(sinal);
+        }
+    }
+
+    // ============ CARGA E RECONCILIAÇÃO ============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        recarregar();
+        pronto = true;
+    }
+
+    @Scheduled(fixedDelayString = "${inventario.contadores.reconciliacao-ms:300000}",
+               initialDelayString = "${inventario.contadores.reconciliacao-ms:300000}")
+    public void reconciliar() {
+        if (pronto) {
+            recarregar();
+        }
+    }
+
+    // Substitui os contadores pelos valores agregados no banco
+    public void recarregar() {
+        TotaisInventario banco = produtoRepository.calcularTotaisInventario();
+        Map<Long, ContadorCategoria> categorias = new ConcurrentHashMap<>();
+        for (ContagemCategoria contagem : produtoRepository.contarProdutosPorCategoria()) {
+            ContadorCategoria contador = new ContadorCategoria(contagem.categoria());
+            contador.quantidade.add(contagem.quantidade());
+            categorias.put(contagem.categoriaId(), contador);
+        }
+
+        if (pronto && (!banco.equals(totais()) || !produtosPorCategoria().equals(contagemPorNome(categorias)))) {
+            meterRegistry.counter("inventario.contadores.divergencias").increment();
+        }
+
+        totalItens.add(banco.totalItens() - totalItens.sum());
+        totalDisponiveis.add(banco.totalDisponiveis() - totalDisponiveis.sum());
+        porCategoria = categorias;
+    }
+
+    private Map<String, Long> contagemPorNome(Map<Long, ContadorCategoria> categorias) {
+        Map<String, Long> contagem = new HashMap<>();
+        for (ContadorCategoria contador : categorias.values()) {
+            contagem.merge(contador.nome, contador.quantidade.sum(), Long::sum);
+        }
+        return contagem;
+    }
+
+    // Valores do produto que entram nos contadores, capturados dentro da transação
+    public record Situacao(boolean ativo, Long categoriaId, String categoria, int total, int disponivel) {
+
+        public static Situacao de(Produto produto) {
+            return new Situacao(
+                Boolean.TRUE.equals(produto.getAtivo()),
+                produto.getCategoria() == null ? null : produto.getCategoria().getId(),
+                produto.getCategoria() == null ? null : produto.getCategoria().getNome(),
+                produto.getQuantidadeTotal() == null ? 0 : produto.getQuantidadeTotal(),
+                produto.getQuantidadeDisponivel() == null ? 0 : produto.getQuantidadeDisponivel());
+        }
+    }
+
+    private static final class ContadorCategoria {
+        private final String nome;
+        private final LongAdder quantidade = new LongAdder();
+
+        private ContadorCategoria(String nome) {
+            this.nome = nome;
+        }
+    }
+}
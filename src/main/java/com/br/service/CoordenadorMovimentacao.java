@@ -0,0 +1,156 @@
+package com.br.service;
+
+import com.br.repository.ProdutoRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+// Serializa na JVM os empréstimos e devoluções de um mesmo produto.
+// Cada pedido entra na fila do produto e disputa um lock de listra (stripe); quem obtém o lock
+// esvazia a fila e aplica os pedidos pendentes juntos: primeiro um único UPDATE com a soma das
+// quantidades e, se o saldo não comportar o grupo inteiro, pedido a pedido. Assim a disputa em
+// produtos muito procurados fica na aplicação em vez de virar espera de lock no banco.
+@Component
+public class CoordenadorMovimentacao {
+
+    private static final int LISTRAS = 64; // potência de 2
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] listras = new ReentrantLock[LISTRAS];
+    private final ConcurrentHashMap<Long, Queue<Pedido>> pendentes = new ConcurrentHashMap<>();
+
+    public CoordenadorMovimentacao(ProdutoRepository produtoRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.produtoRepository = produtoRepository;
+        // Transação própria mesmo quando o chamador já tem uma: o lote leva pedidos de outras
+        // threads, que não podem depender do commit ou rollback da transação de quem tem o lock
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LISTRAS; i++) {
+            listras[i] = new ReentrantLock();
+        }
+    }
+
+    // Retorna false quando o produto não existe, está inativo ou não tem saldo suficiente
+    public boolean emprestar(Long id, int quantidade) {
+        return aplicar(id, new Pedido(true, quantidade));
+    }
+
+    // Retorna false quando o produto não existe ou a devolução excede a quantidade total
+    public boolean devolver(Long id, int quantidade) {
+        return aplicar(id, new Pedido(false, quantidade));
+    }
+
+    private boolean aplicar(Long id, Pedido pedido) {
+        Queue<Pedido> fila = pendentes.computeIfAbsent(id, chave -> new ConcurrentLinkedQueue<>());
+        fila.add(pedido);
+
+        ReentrantLock lock = listras[Long.hashCode(id) & (LISTRAS - 1)];
+        lock.lock();
+        try {
+            // Outro pedido pode já ter processado este enquanto aguardávamos o lock
+            if (!pedido.concluido) {
+                processarPendentes(id, fila);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (pedido.erro != null) {
+            throw pedido.erro;
+        }
+        return pedido.aplicado;
+    }
+
+    // Recebe a fila em que o pedido entrou, e não a do mapa: se ela saiu do mapa entre o
+    // computeIfAbsent e o add, o próprio dono do pedido a esvazia aqui
+    private void processarPendentes(Long id, Queue<Pedido> fila) {
+        List<Pedido> emprestimos = new ArrayList<>();
+        List<Pedido> devolucoes = new ArrayList<>();
+
+        Pedido pedido;
+        while ((pedido = fila.poll()) != null) {
+            (pedido.emprestimo ? emprestimos : devolucoes).add(pedido);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Devoluções primeiro: liberam saldo para os empréstimos do mesmo lote
+                aplicarGrupo(id, devolucoes, produtoRepository::incrementarDisponibilidade);
+                aplicarGrupo(id, emprestimos, produtoRepository::decrementarDisponibilidade);
+            });
+        } catch (RuntimeException e) {
+            for (Pedido p : emprestimos) {
+                p.erro = e;
+            }
+            for (Pedido p : devolucoes) {
+                p.erro = e;
+            }
+        }
+
+        for (Pedido p : emprestimos) {
+            p.concluido = true;
+        }
+        for (Pedido p : devolucoes) {
+            p.concluido = true;
+        }
+
+        // Fila vazia sai do mapa; senão cada produto já movimentado ocuparia uma entrada para sempre
+        if (fila.isEmpty()) {
+            pendentes.remove(id, fila);
+        }
+    }
+
+    // Produtos com fila no mapa (diagnóstico e testes)
+    int filasPendentes() {
+        return pendentes.size();
+    }
+
+    private void aplicarGrupo(Long id, List<Pedido> grupo, BiFunction<Long, Integer, Integer> atualizacao) {
+        if (grupo.isEmpty()) {
+            return;
+        }
+
+        if (grupo.size() > 1) {
+            int total = 0;
+            for (Pedido p : grupo) {
+                total += p.quantidade;
+            }
+            if (atualizacao.apply(id, total) == 1) {
+                for (Pedido p : grupo) {
+                    p.aplicado = true;
+                }
+                return;
+            }
+        }
+
+        // O grupo não coube de uma vez: cada pedido é decidido individualmente, na ordem de chegada
+        for (Pedido p : grupo) {
+            p.aplicado = atualizacao.apply(id, p.quantidade) == 1;
+        }
+    }
+
+    // Campos lidos pelo dono do pedido só depois de adquirir o mesmo lock que os escreveu
+    private static final class Pedido {
+        private final boolean emprestimo;
+        private final int quantidade;
+        private boolean aplicado;
+        private boolean concluido;
+        private RuntimeException erro;
+
+        private Pedido(boolean emprestimo, int quantidade) {
+            this.emprestimo = emprestimo;
+            this.quantidade = quantidade;
+        }
+    }
+}
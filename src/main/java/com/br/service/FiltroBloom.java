@@ -0,0 +1,67 @@
+package com.br.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom para textos: "não contém" é definitivo; "pode conter" precisa ser confirmado
+// no banco. Dimensionado para a quantidade esperada de elementos e a taxa de falso positivo;
+// acima dessa quantidade a taxa sobe, então o dono do filtro o reconstrói periodicamente.
+// Inserções e consultas concorrentes sem lock (bits em AtomicLongArray, nunca apagados).
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+
+    public FiltroBloom(long elementosEsperados, double taxaFalsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        // m = -n ln(p) / (ln 2)^2 e k = (m / n) ln 2
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.totalBits = (long) bits.length() * 64;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        long hash1 = hash(valor);
+        long hash2 = misturar(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, totalBits);
+            long mascara = 1L << bit;
+            int palavra = (int) (bit >>> 6);
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    public boolean podeConter(String valor) {
+        long hash1 = hash(valor);
+        long hash2 = misturar(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8, seguido da mistura final do SplitMix64;
+    // as k posições saem de dois hashes (h1 + i * h2)
+    private static long hash(String valor) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return misturar(hash);
+    }
+
+    private static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+        return valor ^ (valor >>> 31);
+    }
+}
@@ -0,0 +1,140 @@
+package com.br.service;
+
+import com.br.repository.ProdutoRepository;
+import com.br.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Filtros de Bloom das chaves únicas (código e número de série do produto, email e matrícula
+// do usuário) na frente das verificações de duplicidade: a maioria das consultas digitadas no
+// formulário é de valores inexistentes, que assim são respondidas sem ir ao banco.
+// Falso negativo faria uma duplicidade passar pela validação, então os serviços registram o valor
+// antes de gravar e de novo após o commit, e a reconstrução periódica (que também descarta valores
+// antigos, acompanha o crescimento das tabelas e inclui gravações feitas fora dos serviços) aplica
+// ao filtro novo os registros feitos enquanto lia o banco. Inicializadores gravam antes da primeira
+// carga; cargas de outro processo (GeradorDados, scripts) pedem a reconstrução em POST /actuator/filtros.
+// Código, email, matrícula e número de série (índice único parcial) ainda têm a restrição do
+// banco como garantia final, respondida com 409 pelo TratadorErros.
+// Métrica: inventario.bloom.consultas.evitadas (tag chave).
+@Component
+public class FiltrosExistencia {
+
+    private static final long MINIMO_ELEMENTOS = 10_000;
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+    public enum Chave { CODIGO, NUMERO_SERIE, EMAIL, MATRICULA }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Chave, Filtro> filtros = new EnumMap<>(Chave.class);
+
+    public FiltrosExistencia(ProdutoRepository produtoRepository, UsuarioRepository usuarioRepository,
+                             MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        filtros.put(Chave.CODIGO, new Filtro(produtoRepository::listarCodigos));
+        filtros.put(Chave.NUMERO_SERIE, new Filtro(produtoRepository::listarNumerosSerie));
+        filtros.put(Chave.EMAIL, new Filtro(usuarioRepository::listarEmails));
+        filtros.put(Chave.MATRICULA, new Filtro(usuarioRepository::listarMatriculas));
+    }
+
+    // false só quando o valor certamente não existe; antes da primeira carga sempre true
+    public boolean podeExistir(Chave chave, String valor) {
+        if (valor == null) {
+            return true;
+        }
+        boolean pode = filtros.get(chave).podeConter(valor);
+        if (!pode) {
+            meterRegistry.counter("inventario.bloom.consultas.evitadas", "chave", chave.name()).increment();
+        }
+        return pode;
+    }
+
+    // Chamado antes de gravar o valor; repetido após o commit para alcançar uma reconstrução
+    // que tenha lido o banco antes dele e trocado o filtro antes do commit
+    public void registrar(Chave chave, String valor) {
+        if (valor == null) {
+            return;
+        }
+        Filtro filtro = filtros.get(chave);
+        filtro.adicionar(valor);
+        TransacaoUtils.aposCommit(() -> filtro.adicionar(valor));
+    }
+
+    // ============ CARGA E RECONSTRUÇÃO ============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconstruir();
+    }
+
+    @Scheduled(fixedDelayString = "${inventario.bloom.reconstrucao-ms:3600000}",
+               initialDelayString = "${inventario.bloom.reconstrucao-ms:3600000}")
+    public void reconstruir() {
+        filtros.values().forEach(Filtro::reconstruir);
+    }
+
+    // Durante a reconstrução os registros também são guardados em "pendentes" e aplicados ao
+    // filtro novo antes da troca; a consulta ao banco roda fora do monitor do filtro. Reconstruções
+    // são serializadas por um ReentrantLock, que não prende threads virtuais durante a consulta
+    private static final class Filtro {
+        private final Supplier<List<String>> carregador;
+        private final ReentrantLock reconstrucao = new ReentrantLock();
+        private volatile FiltroBloom atual;
+        private List<String> pendentes;
+
+        private Filtro(Supplier<List<String>> carregador) {
+            this.carregador = carregador;
+        }
+
+        private boolean podeConter(String valor) {
+            FiltroBloom filtro = atual;
+            return filtro == null || filtro.podeConter(valor);
+        }
+
+        private synchronized void adicionar(String valor) {
+            if (atual != null) {
+                atual.adicionar(valor);
+            }
+            if (pendentes != null) {
+                pendentes.add(valor);
+            }
+        }
+
+        private void reconstruir() {
+            reconstrucao.lock();
+            try {
+                synchronized (this) {
+                    pendentes = new ArrayList<>();
+                }
+                FiltroBloom novo;
+                try {
+                    List<String> valores = carregador.get();
+                    // Folga para o crescimento até a próxima reconstrução
+                    novo = new FiltroBloom(Math.max(MINIMO_ELEMENTOS, valores.size() * 2L), TAXA_FALSO_POSITIVO);
+                    valores.forEach(novo::adicionar);
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        pendentes = null;
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    pendentes.forEach(novo::adicionar);
+                    pendentes = null;
+                    atual = novo;
+                }
+            } finally {
+                reconstrucao.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.br.service;
+
+import com.br.dto.ProgressoImportacao;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface ImportacaoProdutoService {
+
+	// Importa produtos de um CSV com cabeçalho, lote a lote, notificando o progresso
+	// a cada lote. Colunas obrigatórias: nome, codigo, categoria.
+	// Opcionais: descricao, numeroSerie, marca, modelo, quantidadeTotal, localizacao,
+	// estadoConservacao, observacoes. Categoria, marca e localização são informadas pelo nome.
+	ProgressoImportacao importarCsv(InputStream entrada, Consumer<ProgressoImportacao> progresso) throws IOException;
+}
@@ -0,0 +1,312 @@
+package com.br.service;
+
+import com.br.dto.ErroImportacao;
+import com.br.dto.ProgressoImportacao;
+import com.br.exception.DadosInvalidosException;
+import com.br.model.Categoria;
+import com.br.model.Localizacao;
+import com.br.model.Marca;
+import com.br.model.Produto;
+import com.br.repository.ProdutoRepository;
+import com.br.service.ContadoresInventario.Situacao;
+import com.br.service.FiltrosExistencia.Chave;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+public class ImportacaoProdutoServiceImpl implements ImportacaoProdutoService {
+
+    // Múltiplo de hibernate.jdbc.batch_size e do allocationSize da sequência de produtos
+    private static final int TAMANHO_LOTE = 1000;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private MarcaService marcaService;
+
+    @Autowired
+    private LocalizacaoService localizacaoService;
+
+    @Autowired
+    private IndiceBuscaProdutos indiceBusca;
+
+    @Autowired
+    private ContadoresInventario contadores;
+    
+    @Autowired
+    private FiltrosExistencia filtrosExistencia;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public ProgressoImportacao importarCsv(InputStream entrada, Consumer<ProgressoImportacao> progresso) throws IOException {
+        LeitorCsv leitor = new LeitorCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        List<String> cabecalho = leitor.lerCabecalho();
+        if (cabecalho == null) {
+            throw new DadosInvalidosException("Arquivo CSV vazio");
+        }
+        Map<String, Integer> colunas = mapearColunas(cabecalho);
+        for (String obrigatoria : List.of("nome", "codigo", "categoria")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new DadosInvalidosException("Coluna obrigatória ausente no CSV: " + obrigatoria);
+            }
+        }
+
+        // Tabelas de referência vêm dos registros em memória: resolvidas pelo nome, sem consulta por linha
+        Map<String, Categoria> categorias = indexarPorNome(categoriaService.findAll(), Categoria::getNome);
+        Map<String, Marca> marcas = indexarPorNome(marcaService.findAll(), Marca::getNome);
+        Map<String, Localizacao> localizacoes = indexarPorNome(localizacaoService.findAll(), Localizacao::getNome);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Set<String> codigosNoArquivo = new HashSet<>();
+        Set<String> numerosSerieNoArquivo = new HashSet<>();
+
+        long linhasProcessadas = 0;
+        long importados = 0;
+        long rejeitados = 0;
+
+        List<String> registro = leitor.proximoRegistro();
+        while (registro != null) {
+            List<LinhaProduto> lote = new ArrayList<>(TAMANHO_LOTE);
+            List<ErroImportacao> erros = new ArrayList<>();
+
+            while (registro != null && lote.size() + erros.size() < TAMANHO_LOTE) {
+                long linha = leitor.getLinha();
+                if (!(registro.size() == 1 && registro.get(0).isBlank())) {
+                    linhasProcessadas++;
+                    try {
+                        Produto produto = converterLinha(registro, colunas, categorias, marcas, localizacoes);
+
+                        if (!codigosNoArquivo.add(produto.getCodigo())) {
+                            throw new DadosInvalidosException("Código repetido no arquivo: " + produto.getCodigo());
+                        }
+                        if (produto.getNumeroSerie() != null && !numerosSerieNoArquivo.add(produto.getNumeroSerie())) {
+                            throw new DadosInvalidosException("Número de série repetido no arquivo: " + produto.getNumeroSerie());
+                        }
+                        lote.add(new LinhaProduto(linha, produto));
+                    } catch (DadosInvalidosException e) {
+                        erros.add(new ErroImportacao(linha, e.getMessage()));
+                    }
+                }
+                registro = leitor.proximoRegistro();
+            }
+
+            List<ErroImportacao> errosLote;
+            try {
+                errosLote = transactionTemplate.execute(status -> gravarLote(lote));
+            } catch (DataIntegrityViolationException e) {
+                // Outra gravação levou um código ou número de série do lote depois da consulta de
+                // duplicidade: o lote voltou inteiro, então as linhas são regravadas uma a uma
+                errosLote = gravarLinhaALinha(transactionTemplate, lote);
+            }
+            erros.addAll(errosLote);
+
+            importados += lote.size() - errosLote.size();
+            rejeitados += erros.size();
+            progresso.accept(new ProgressoImportacao(linhasProcessadas, importados, rejeitados, erros, false));
+        }
+
+        ProgressoImportacao resumo = new ProgressoImportacao(linhasProcessadas, importados, rejeitados, List.of(), true);
+        progresso.accept(resumo);
+        return resumo;
+    }
+
+    // Uma consulta de duplicidade por lote e INSERTs em lote JDBC (ids vêm do pool da sequência)
+    private List<ErroImportacao> gravarLote(List<LinhaProduto> lote) {
+        List<ErroImportacao> erros = new ArrayList<>();
+        if (lote.isEmpty()) {
+            return erros;
+        }
+
+        // Só entram na consulta de duplicidade os valores que o filtro de Bloom não descarta;
+        // num arquivo de produtos novos, em geral nenhum, e o lote não consulta o banco
+        Set<String> codigos = new HashSet<>();
+        Set<String> numerosSerie = new HashSet<>();
+        for (LinhaProduto linha : lote) {
+            if (filtrosExistencia.podeExistir(Chave.CODIGO, linha.produto().getCodigo())) {
+                codigos.add(linha.produto().getCodigo());
+            }
+            if (linha.produto().getNumeroSerie() != null &&
+                filtrosExistencia.podeExistir(Chave.NUMERO_SERIE, linha.produto().getNumeroSerie())) {
+                numerosSerie.add(linha.produto().getNumeroSerie());
+            }
+        }
+
+        Set<String> codigosExistentes = new HashSet<>();
+        Set<String> numerosSerieExistentes = new HashSet<>();
+        List<Object[]> existentes = List.of();
+        if (!codigos.isEmpty() || !numerosSerie.isEmpty()) {
+            // IN vazio é inválido: o conjunto vazio vira [""] (números de série em branco são gravados como null)
+            existentes = produtoRepository.findCodigosENumerosSerieExistentes(
+                codigos.isEmpty() ? Set.of("") : codigos, numerosSerie.isEmpty() ? Set.of("") : numerosSerie);
+        }
+        for (Object[] existente : existentes) {
+            codigosExistentes.add((String) existente[0]);
+            if (existente[1] != null) {
+                numerosSerieExistentes.add((String) existente[1]);
+            }
+        }
+
+        List<Produto> novos = new ArrayList<>(lote.size());
+        for (LinhaProduto linha : lote) {
+            Produto produto = linha.produto();
+            if (codigosExistentes.contains(produto.getCodigo())) {
+                erros.add(new ErroImportacao(linha.numero(), "Código já existe: " + produto.getCodigo()));
+            } else if (produto.getNumeroSerie() != null && numerosSerieExistentes.contains(produto.getNumeroSerie())) {
+                erros.add(new ErroImportacao(linha.numero(), "Número de série já existe: " + produto.getNumeroSerie()));
+            } else {
+                novos.add(produto);
+            }
+        }
+
+        for (Produto produto : novos) {
+            filtrosExistencia.registrar(Chave.CODIGO, produto.getCodigo());
+            filtrosExistencia.registrar(Chave.NUMERO_SERIE, produto.getNumeroSerie());
+        }
+        produtoRepository.saveAll(novos);
+        List<Situacao> situacoes = novos.stream().map(Situacao::de).toList();
+        TransacaoUtils.aposCommit(() -> {
+            indiceBusca.atualizarTodos(novos);
+            situacoes.forEach(situacao -> contadores.aplicar(null, situacao));
+        });
+        return erros;
+    }
+
+    // Cada linha na própria transação: só as que violam a unicidade são rejeitadas
+    private List<ErroImportacao> gravarLinhaALinha(TransactionTemplate transactionTemplate, List<LinhaProduto> lote) {
+        List<ErroImportacao> erros = new ArrayList<>();
+        for (LinhaProduto linha : lote) {
+            // O rollback não desfaz o id e a versão atribuídos no persist
+            linha.produto().setId(null);
+            linha.produto().setVersao(null);
+            try {
+                erros.addAll(transactionTemplate.execute(status -> gravarLote(List.of(linha))));
+            } catch (DataIntegrityViolationException e) {
+                erros.add(new ErroImportacao(linha.numero(),
+                    "Produto conflita com um registro gravado durante a importação: " + linha.produto().getCodigo()));
+            }
+        }
+        return erros;
+    }
+
+    private Produto converterLinha(List<String> registro, Map<String, Integer> colunas,
+                                   Map<String, Categoria> categorias, Map<String, Marca> marcas,
+                                   Map<String, Localizacao> localizacoes) {
+        String nome = valor(registro, colunas, "nome");
+        String codigo = valor(registro, colunas, "codigo");
+        String nomeCategoria = valor(registro, colunas, "categoria");
+
+        if (nome == null || nome.length() < 3 || nome.length() > 100) {
+            throw new DadosInvalidosException("Nome deve ter entre 3 e 100 caracteres");
+        }
+        if (codigo == null || codigo.length() < 3 || codigo.length() > 50) {
+            throw new DadosInvalidosException("Código deve ter entre 3 e 50 caracteres");
+        }
+        if (nomeCategoria == null) {
+            throw new DadosInvalidosException("Categoria é obrigatória");
+        }
+
+        Categoria categoria = categorias.get(nomeCategoria.toLowerCase(Locale.ROOT));
+        if (categoria == null) {
+            throw new DadosInvalidosException("Categoria não encontrada: " + nomeCategoria);
+        }
+
+        Produto produto = new Produto(nome, codigo, categoria);
+        produto.setDescricao(valor(registro, colunas, "descricao"));
+        produto.setNumeroSerie(valor(registro, colunas, "numeroserie"));
+        produto.setModelo(valor(registro, colunas, "modelo"));
+        produto.setEstadoConservacao(valor(registro, colunas, "estadoconservacao"));
+        produto.setObservacoes(valor(registro, colunas, "observacoes"));
+
+        String nomeMarca = valor(registro, colunas, "marca");
+        if (nomeMarca != null) {
+            Marca marca = marcas.get(nomeMarca.toLowerCase(Locale.ROOT));
+            if (marca == null) {
+                throw new DadosInvalidosException("Marca não encontrada: " + nomeMarca);
+            }
+            produto.setMarca(marca);
+        }
+
+        String nomeLocalizacao = valor(registro, colunas, "localizacao");
+        if (nomeLocalizacao != null) {
+            Localizacao localizacao = localizacoes.get(nomeLocalizacao.toLowerCase(Locale.ROOT));
+            if (localizacao == null) {
+                throw new DadosInvalidosException("Localização não encontrada: " + nomeLocalizacao);
+            }
+            produto.setLocalizacao(localizacao);
+        }
+
+        String quantidadeTexto = valor(registro, colunas, "quantidadetotal");
+        int quantidade = 1;
+        if (quantidadeTexto != null) {
+            try {
+                quantidade = Integer.parseInt(quantidadeTexto);
+            } catch (NumberFormatException e) {
+                throw new DadosInvalidosException("Quantidade total inválida: " + quantidadeTexto);
+            }
+            if (quantidade < 0) {
+                throw new DadosInvalidosException("Quantidade total deve ser maior ou igual a zero");
+            }
+        }
+        produto.setQuantidadeTotal(quantidade);
+        produto.setQuantidadeDisponivel(quantidade);
+        produto.setAtivo(true);
+
+        return produto;
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    // Cabeçalhos comparados sem diferenciar maiúsculas (numeroSerie, NUMEROSERIE...)
+    private Map<String, Integer> mapearColunas(List<String> cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String nome = cabecalho.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            colunas.putIfAbsent(nome, i);
+        }
+        return colunas;
+    }
+
+    private String valor(List<String> registro, Map<String, Integer> colunas, String coluna) {
+        Integer indice = colunas.get(coluna);
+        if (indice == null || indice >= registro.size()) {
+            return null;
+        }
+        String valor = registro.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private <T> Map<String, T> indexarPorNome(List<T> entidades, Function<T, String> nome) {
+        Map<String, T> porNome = new HashMap<>();
+        for (T entidade : entidades) {
+            porNome.put(nome.apply(entidade).toLowerCase(Locale.ROOT), entidade);
+        }
+        return porNome;
+    }
+
+    private record LinhaProduto(long numero, Produto produto) {
+    }
+}
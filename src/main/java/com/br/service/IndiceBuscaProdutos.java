@@ -0,0 +1,307 @@
+package com.br.service;
+
+import com.br.model.Produto;
+import com.br.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido de trigramas dos produtos ativos (nome, código, número de série e modelo),
+// mantido em memória para que a busca digitada no frontend não consulte o PostgreSQL a cada tecla.
+// Cada trigrama aponta para um vetor ordenado de ids (long[]); os candidatos da interseção são
+// conferidos no texto guardado, então o resultado é o mesmo de um LIKE '%termo%'.
+// Carregado na inicialização e atualizado pelos serviços após o commit de cada alteração.
+@Component
+public class IndiceBuscaProdutos {
+
+    private static final int TAMANHO_CARGA = 1000;
+
+    private final ProdutoRepository produtoRepository;
+    private final boolean habilitado;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, ListaIds> idsPorTrigrama = new HashMap<>();
+    private final Map<Long, String[]> textosPorId = new HashMap<>();
+    private volatile boolean pronto;
+
+    public IndiceBuscaProdutos(ProdutoRepository produtoRepository,
+                               @Value("${inventario.busca.memoria.habilitado:false}") boolean habilitado) {
+        this.produtoRepository = produtoRepository;
+        this.habilitado = habilitado;
+    }
+
+    // Enquanto não estiver pronto (desabilitado ou carregando), a busca vai ao banco
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            return;
+        }
+
+        // Alterações que terminarem durante a carga aguardam o lock e são aplicadas por cima dela
+        lock.writeLock().lock();
+        try {
+            long cursor = 0;
+            List<Object[]> pagina;
+            do {
+                pagina = produtoRepository.listarTextosAtivosAposCursor(cursor, PageRequest.of(0, TAMANHO_CARGA));
+                for (Object[] linha : pagina) {
+                    cursor = (Long) linha[0];
+                    indexar(cursor, normalizar((String) linha[1], (String) linha[2], (String) linha[3], (String) linha[4]));
+                }
+            } while (pagina.size() == TAMANHO_CARGA);
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reindexa o produto; inativos saem do índice
+    public void atualizar(Produto produto) {
+        atualizarTodos(List.of(produto));
+    }
+
+    public void atualizarTodos(Collection<Produto> produtos) {
+        if (!habilitado) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Produto produto : produtos) {
+                retirar(produto.getId());
+                if (Boolean.TRUE.equals(produto.getAtivo())) {
+                    indexar(produto.getId(), normalizar(produto.getNome(), produto.getCodigo(),
+                            produto.getNumeroSerie(), produto.getModelo()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        if (!habilitado) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            retirar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids dos produtos que contêm o termo, do mais relevante ao menos relevante:
+    // campo igual ao termo, depois começando pelo termo, depois contendo; empate pelo id
+    public List<Long> buscar(String termo, int limite) {
+        String termoNormalizado = termo.trim().toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1, Resultado.PIOR_PRIMEIRO);
+
+            if (termoNormalizado.length() < 3) {
+                // Termo curto não forma trigrama: confere todos os textos, ainda sem ir ao banco
+                for (Map.Entry<Long, String[]> documento : textosPorId.entrySet()) {
+                    pontuar(documento.getKey(), documento.getValue(), termoNormalizado, melhores, limite);
+                }
+            } else {
+                ListaIds candidatos = intersecao(trigramas(termoNormalizado));
+                for (int i = 0; i < candidatos.tamanho; i++) {
+                    long id = candidatos.ids[i];
+                    pontuar(id, textosPorId.get(id), termoNormalizado, melhores, limite);
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(melhores.size());
+            while (!melhores.isEmpty()) {
+                ids.add(melhores.poll().id());
+            }
+            Collections.reverse(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+    // Chamados com o lock de escrita (indexar/retirar) ou de leitura (intersecao) já obtido
+
+    private void indexar(long id, String[] textos) {
+        textosPorId.put(id, textos);
+        for (String trigrama : trigramas(textos)) {
+            idsPorTrigrama.computeIfAbsent(trigrama, chave -> new ListaIds()).adicionar(id);
+        }
+    }
+
+    private void retirar(long id) {
+        String[] textos = textosPorId.remove(id);
+        if (textos == null) {
+            return;
+        }
+        for (String trigrama : trigramas(textos)) {
+            ListaIds lista = idsPorTrigrama.get(trigrama);
+            if (lista != null && lista.remover(id) && lista.tamanho == 0) {
+                idsPorTrigrama.remove(trigrama);
+            }
+        }
+    }
+
+    // Começa pela lista mais curta; cada passo só pode reduzir o conjunto
+    private ListaIds intersecao(Set<String> trigramas) {
+        List<ListaIds> listas = new ArrayList<>(trigramas.size());
+        for (String trigrama : trigramas) {
+            ListaIds lista = idsPorTrigrama.get(trigrama);
+            if (lista == null) {
+                return new ListaIds();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(lista -> lista.tamanho));
+
+        ListaIds resultado = listas.get(0).copia();
+        for (int i = 1; i < listas.size() && resultado.tamanho > 0; i++) {
+            resultado.manterComuns(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private void pontuar(long id, String[] textos, String termo, PriorityQueue<Resultado> melhores, int limite) {
+        int pontos = 0;
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            if (texto.equals(termo)) {
+                pontos = Math.max(pontos, 3);
+            } else if (texto.startsWith(termo)) {
+                pontos = Math.max(pontos, 2);
+            } else if (texto.contains(termo)) {
+                pontos = Math.max(pontos, 1);
+            }
+        }
+        if (pontos == 0) {
+            return;
+        }
+
+        melhores.add(new Resultado(id, pontos));
+        if (melhores.size() > limite) {
+            melhores.poll();
+        }
+    }
+
+    private static String[] normalizar(String... textos) {
+        String[] normalizados = new String[textos.length];
+        for (int i = 0; i < textos.length; i++) {
+            normalizados[i] = textos[i] == null ? null : textos[i].toLowerCase(Locale.ROOT);
+        }
+        return normalizados;
+    }
+
+    // Trigramas de cada campo separadamente (nenhum atravessa a divisa entre campos)
+    private static Set<String> trigramas(String... textos) {
+        Set<String> trigramas = new HashSet<>();
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                trigramas.add(texto.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    private record Resultado(long id, int pontos) {
+        // Cabeça da fila = candidato a sair quando o limite é excedido
+        private static final Comparator<Resultado> PIOR_PRIMEIRO = Comparator
+                .comparingInt(Resultado::pontos)
+                .thenComparing(Comparator.comparingLong(Resultado::id).reversed());
+    }
+
+    // Lista de ids ordenada e sem repetição sobre um long[] que cresce sob demanda
+    private static final class ListaIds {
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        private void adicionar(long id) {
+            // Na carga os ids chegam em ordem crescente: inserção no fim, sem busca
+            if (tamanho > 0 && ids[tamanho - 1] >= id) {
+                int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+                if (posicao >= 0) {
+                    return;
+                }
+                inserir(-posicao - 1, id);
+                return;
+            }
+            inserir(tamanho, id);
+        }
+
+        private void inserir(int posicao, long id) {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        private boolean remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        private ListaIds copia() {
+            ListaIds copia = new ListaIds();
+            copia.ids = Arrays.copyOf(ids, Math.max(tamanho, 1));
+            copia.tamanho = tamanho;
+            return copia;
+        }
+
+        // Interseção no próprio vetor, percorrendo as duas listas ordenadas em paralelo
+        private void manterComuns(ListaIds outra) {
+            int i = 0;
+            int j = 0;
+            int comuns = 0;
+            while (i < tamanho && j < outra.tamanho) {
+                long a = ids[i];
+                long b = outra.ids[j];
+                if (a == b) {
+                    ids[comuns++] = a;
+                    i++;
+                    j++;
+                } else if (a < b) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            tamanho = comuns;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.br.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitor de CSV incremental: lê um registro por vez, sem carregar o arquivo na memória.
+// Aceita vírgula ou ponto e vírgula (detectado no cabeçalho), campos entre aspas com
+// aspas duplicadas ("") e quebras de linha dentro de aspas.
+class LeitorCsv {
+
+    private final BufferedReader leitor;
+    private char separador = ',';
+    private long linhaAtual = 0;
+    private long linhaInicioRegistro = 0;
+
+    LeitorCsv(Reader leitor) {
+        this.leitor = leitor instanceof BufferedReader ? (BufferedReader) leitor : new BufferedReader(leitor);
+    }
+
+    // Lê o cabeçalho e define o separador pela primeira ocorrência de ',' ou ';'
+    List<String> lerCabecalho() throws IOException {
+        leitor.mark(8192);
+        int c;
+        while ((c = leitor.read()) != -1 && c != '\n') {
+            if (c == ';' || c == ',') {
+                separador = (char) c;
+                break;
+            }
+        }
+        leitor.reset();
+        return proximoRegistro();
+    }
+
+    // Retorna null no fim do arquivo
+    List<String> proximoRegistro() throws IOException {
+        int c = leitor.read();
+        if (c == -1) {
+            return null;
+        }
+
+        linhaAtual++;
+        linhaInicioRegistro = linhaAtual;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        while (c != -1) {
+            if (entreAspas) {
+                if (c == '"') {
+                    leitor.mark(1);
+                    int proximo = leitor.read();
+                    if (proximo == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        if (proximo != -1) {
+                            leitor.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+            c = leitor.read();
+        }
+
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Linha física onde começou o último registro lido
+    long getLinha() {
+        return linhaInicioRegistro;
+    }
+}
@@ -14,6 +14,7 @@ public interface LocalizacaoService {
     Localizacao update(Long id, Localizacao localizacaoDetails);
     void delete(Long id);
     void softDelete(Long id);
+    void reativar(Long id);
     
     // Consultas específicas
     Optional<Localizacao> findByNome(String nome);
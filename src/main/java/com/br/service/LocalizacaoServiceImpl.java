@@ -1,5 +1,7 @@
 package com.br.service;
 
+import com.br.exception.ConflitoException;
+import com.br.exception.RecursoNaoEncontradoException;
 import com.br.model.Localizacao;
 import com.br.repository.LocalizacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,29 +17,38 @@ public class LocalizacaoServiceImpl implements LocalizacaoService {
     @Autowired
     private LocalizacaoRepository localizacaoRepository;
     
+    @Autowired
+    private CacheProdutos cacheProdutos;
+    
+    // Consultas atendidas em memória; recarregado após cada escrita
+    private final RegistroReferencia<Localizacao> registro = new RegistroReferencia<>(
+        () -> localizacaoRepository.findAll(), Localizacao::getId, Localizacao::getNome, Localizacao::getAtivo);
+    
     @Override
     @Transactional
     public Localizacao save(Localizacao localizacao) {
         // Verificar se já existe localização com mesmo nome
         if (localizacao.getId() == null && localizacaoRepository.existsByNome(localizacao.getNome())) {
-            throw new IllegalArgumentException("Localização com nome '" + localizacao.getNome() + "' já existe");
+            throw new ConflitoException("Localização com nome '" + localizacao.getNome() + "' já existe");
         }
-        return localizacaoRepository.save(localizacao);
+        Localizacao salva = localizacaoRepository.save(localizacao);
+        recarregarAposCommit();
+        return salva;
     }
     
     @Override
     public Optional<Localizacao> findById(Long id) {
-        return localizacaoRepository.findById(id);
+        return registro.porId(id);
     }
     
     @Override
     public List<Localizacao> findAll() {
-        return localizacaoRepository.findAll();
+        return registro.todos();
     }
     
     @Override
     public List<Localizacao> findActive() {
-        return localizacaoRepository.findByAtivoTrueOrderByNomeAsc();
+        return registro.ativos();
     }
     
     @Override
@@ -51,49 +62,69 @@ public class LocalizacaoServiceImpl implements LocalizacaoService {
                     localizacao.setDescricao(localizacaoDetails.getDescricao());
                     localizacao.setAtivo(localizacaoDetails.getAtivo());
                 }
-                return localizacaoRepository.save(localizacao);
+                Localizacao salva = localizacaoRepository.save(localizacao);
+                recarregarAposCommit();
+                return salva;
             })
-            .orElseThrow(() -> new RuntimeException("Localização não encontrada"));
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Localização não encontrada"));
     }
     
     @Override
     @Transactional
     public void delete(Long id) {
-        localizacaoRepository.findById(id).ifPresent(localizacao -> {
-            if (!localizacao.getTipoSistema()) {
-                localizacaoRepository.delete(localizacao);
-            }
-        });
+        Localizacao localizacao = localizacaoRepository.findById(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Localização não encontrada"));
+        if (!localizacao.getTipoSistema()) {
+            localizacaoRepository.delete(localizacao);
+            recarregarAposCommit();
+        }
     }
     
     @Override
     @Transactional
     public void softDelete(Long id) {
+        Localizacao localizacao = localizacaoRepository.findById(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Localização não encontrada"));
+        if (!localizacao.getTipoSistema()) {
+            localizacao.setAtivo(false);
+            localizacaoRepository.save(localizacao);
+            recarregarAposCommit();
+        }
+    }
+    
+    @Override
+    @Transactional
+    public void reativar(Long id) {
         localizacaoRepository.findById(id).ifPresent(localizacao -> {
-            if (!localizacao.getTipoSistema()) {
-                localizacao.setAtivo(false);
-                localizacaoRepository.save(localizacao);
-            }
+            localizacao.setAtivo(true);
+            localizacaoRepository.save(localizacao);
+            recarregarAposCommit();
         });
     }
     
     @Override
     public Optional<Localizacao> findByNome(String nome) {
-        return localizacaoRepository.findByNome(nome);
+        return registro.porNome(nome);
     }
     
     @Override
     public List<Localizacao> findCustom() {
-        return localizacaoRepository.findByTipoSistemaFalseAndAtivoTrue();
+        return registro.filtrar(localizacao -> !localizacao.getTipoSistema() && localizacao.getAtivo());
     }
     
     @Override
     public List<Localizacao> findSystem() {
-        return localizacaoRepository.findByTipoSistemaTrue();
+        return registro.filtrar(Localizacao::getTipoSistema);
     }
     
     @Override
     public boolean existsByNome(String nome) {
-        return localizacaoRepository.existsByNome(nome);
+        return registro.porNome(nome).isPresent();
+    }
+    
+    // O detalhe de produto em cache inclui a associação: é descartado junto com o registro
+    private void recarregarAposCommit() {
+        registro.recarregarAposCommit();
+        cacheProdutos.limparAposCommit();
     }
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ public interface MarcaService {
     Marca update(Long id, Marca marcaDetails);
     void delete(Long id);
     void softDelete(Long id);
+    void reativar(Long id);
     
     // Consultas específicas
     Optional<Marca> findByNome(String nome);
@@ -1,5 +1,7 @@
 package com.br.service;
 
+import com.br.exception.ConflitoException;
+import com.br.exception.RecursoNaoEncontradoException;
 import com.br.model.Marca;
 import com.br.repository.MarcaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,29 +17,38 @@ public class MarcaServiceImpl implements MarcaService {
     @Autowired
     private MarcaRepository marcaRepository;
     
+    @Autowired
+    private CacheProdutos cacheProdutos;
+    
+    // Consultas atendidas em memória; recarregado após cada escrita
+    private final RegistroReferencia<Marca> registro = new RegistroReferencia<>(
+        () -> marcaRepository.findAll(), Marca::getId, Marca::getNome, Marca::getAtivo);
+    
     @Override
     @Transactional
     public Marca save(Marca marca) {
         // Verificar se já existe marca com mesmo nome
         if (marca.getId() == null && marcaRepository.existsByNome(marca.getNome())) {
-            throw new IllegalArgumentException("Marca com nome '" + marca.getNome() + "' já existe");
+            throw new ConflitoException("Marca com nome '" + marca.getNome() + "' já existe");
         }
-        return marcaRepository.save(marca);
+        Marca salva = marcaRepository.save(marca);
+        recarregarAposCommit();
+        return salva;
     }
     
     @Override
     public Optional<Marca> findById(Long id) {
-        return marcaRepository.findById(id);
+        return registro.porId(id);
     }
     
     @Override
     public List<Marca> findAll() {
-        return marcaRepository.findAll();
+        return registro.todos();
     }
     
     @Override
     public List<Marca> findActive() {
-        return marcaRepository.findByAtivoTrueOrderByNomeAsc();
+        return registro.ativos();
     }
     
     @Override
@@ -51,49 +62,69 @@ public class MarcaServiceImpl implements MarcaService {
                     marca.setDescricao(marcaDetails.getDescricao());
                     marca.setAtivo(marcaDetails.getAtivo());
                 }
-                return marcaRepository.save(marca);
+                Marca salva = marcaRepository.save(marca);
+                recarregarAposCommit();
+                return salva;
             })
-            .orElseThrow(() -> new RuntimeException("Marca não encontrada"));
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Marca não encontrada"));
     }
     
     @Override
     @Transactional
     public void delete(Long id) {
-        marcaRepository.findById(id).ifPresent(marca -> {
-            if (!marca.getTipoSistema()) {
-                marcaRepository.delete(marca);
-            }
-        });
+        Marca marca = marcaRepository.findById(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Marca não encontrada"));
+        if (!marca.getTipoSistema()) {
+            marcaRepository.delete(marca);
+            recarregarAposCommit();
+        }
     }
     
     @Override
     @Transactional
     public void softDelete(Long id) {
+        Marca marca = marcaRepository.findById(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Marca não encontrada"));
+        if (!marca.getTipoSistema()) {
+            marca.setAtivo(false);
+            marcaRepository.save(marca);
+            recarregarAposCommit();
+        }
+    }
+    
+    @Override
+    @Transactional
+    public void reativar(Long id) {
         marcaRepository.findById(id).ifPresent(marca -> {
-            if (!marca.getTipoSistema()) {
-                marca.setAtivo(false);
-                marcaRepository.save(marca);
-            }
+            marca.setAtivo(true);
+            marcaRepository.save(marca);
+            recarregarAposCommit();
         });
     }
     
     @Override
     public Optional<Marca> findByNome(String nome) {
-        return marcaRepository.findByNome(nome);
+        return registro.porNome(nome);
     }
     
     @Override
     public List<Marca> findCustom() {
-        return marcaRepository.findByTipoSistemaFalseAndAtivoTrue();
+        return registro.filtrar(marca -> !marca.getTipoSistema() && marca.getAtivo());
     }
     
     @Override
     public List<Marca> findSystem() {
-        return marcaRepository.findByTipoSistemaTrue();
+        return registro.filtrar(Marca::getTipoSistema);
     }
     
     @Override
     public boolean existsByNome(String nome) {
-        return marcaRepository.existsByNome(nome);
+        return registro.porNome(nome).isPresent();
+    }
+    
+    // O detalhe de produto em cache inclui a associação: é descartado junto com o registro
+    private void recarregarAposCommit() {
+        registro.recarregarAposCommit();
+        cacheProdutos.limparAposCommit();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.br.service;
+
+// Monta padrões de LIKE a partir do termo digitado pelo usuário.
+// O termo é literal: \, % e _ são escapados (escape padrão '\' do PostgreSQL e do H2)
+final class PadraoLike {
+
+    private PadraoLike() {
+    }
+
+    static String contendo(String termo) {
+        return "%" + escapar(termo) + "%";
+    }
+
+    static String prefixo(String termo) {
+        return escapar(termo) + "%";
+    }
+
+    private static String escapar(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
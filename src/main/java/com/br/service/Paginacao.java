@@ -0,0 +1,33 @@
+package com.br.service;
+
+import com.br.dto.PaginaCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Limites de paginação compartilhados pelos serviços
+public final class Paginacao {
+
+    public static final int TAMANHO_PADRAO = 20;
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private Paginacao() {
+    }
+
+    // Aplica o tamanho padrão quando ausente e limita ao máximo permitido
+    public static int normalizarTamanho(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return TAMANHO_PADRAO;
+        }
+        return Math.min(tamanho, TAMANHO_MAXIMO);
+    }
+    
+    // Recebe até limite+1 itens ordenados por id: o item excedente indica que existe próxima página
+    public static <T> PaginaCursor<T> montarPagina(List<T> itens, int limite, Function<T, Long> id) {
+        if (itens.size() <= limite) {
+            return new PaginaCursor<>(itens, null, itens.size());
+        }
+        List<T> pagina = itens.subList(0, limite);
+        return new PaginaCursor<>(pagina, id.apply(pagina.get(limite - 1)), limite);
+    }
+}
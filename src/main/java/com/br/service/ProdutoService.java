@@ -1,5 +1,10 @@
 package com.br.service;
 
+import com.br.dto.ItemEmprestimo;
+import com.br.dto.FiltroProduto;
+import com.br.dto.PaginaCursor;
+import com.br.dto.ProdutoResumo;
+import com.br.dto.TotaisInventario;
 import com.br.model.Produto;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +14,7 @@ import java.util.Optional;
 public interface ProdutoService {
 
 	// ============ CRUD BÁSICO ============
+	// Consultas de detalhe devolvem a entidade completa; listagens devolvem ProdutoResumo
 
 	// Salvar novo produto
 	Produto salvarProduto(Produto produto);
@@ -26,10 +32,16 @@ public interface ProdutoService {
 	Optional<Produto> buscarPorNumeroSerie(String numeroSerie);
 
 	// Listar todos os produtos
-	List<Produto> listarTodos();
+	List<ProdutoResumo> listarTodos();
 
 	// Listar produtos ativos
-	List<Produto> listarAtivos();
+	List<ProdutoResumo> listarAtivos();
+
+	// Listar produtos paginados por cursor (id do último item da página anterior)
+	PaginaCursor<ProdutoResumo> listarTodosPaginado(Long cursor, Integer tamanho);
+
+	// Listar produtos ativos paginados por cursor
+	PaginaCursor<ProdutoResumo> listarAtivosPaginado(Long cursor, Integer tamanho);
 
 	// Desativar produto (exclusão lógica)
 	void desativarProduto(Long id);
@@ -39,6 +51,9 @@ public interface ProdutoService {
 	// Registrar empréstimo (diminui quantidade disponível)
 	Produto registrarEmprestimo(Long id, Integer quantidade);
 
+	// Registrar empréstimo de vários produtos em uma única transação (tudo ou nada)
+	List<Produto> registrarEmprestimoEmLote(List<ItemEmprestimo> itens);
+
 	// Registrar devolução (aumenta quantidade disponível)
 	Produto registrarDevolucao(Long id, Integer quantidade);
 
@@ -46,35 +61,37 @@ public interface ProdutoService {
 	boolean verificarDisponibilidade(Long id, Integer quantidadeRequerida);
 
 	// Listar produtos disponíveis para empréstimo
-	List<Produto> listarDisponiveisParaEmprestimo();
+	List<ProdutoResumo> listarDisponiveisParaEmprestimo();
 
 	// Listar produtos sem disponibilidade (todos emprestados)
-	List<Produto> listarSemDisponibilidade();
+	List<ProdutoResumo> listarSemDisponibilidade();
 
 	// ============ CONSULTAS POR ATRIBUTOS ============
 
-	// Buscar por categoria
-	List<Produto> buscarPorCategoria(String categoria);
+	// Buscar produtos ativos por categoria
+	List<ProdutoResumo> buscarPorCategoria(Long categoriaId);
 
-	// Buscar por marca
-	List<Produto> buscarPorMarca(String marca);
+	// Buscar produtos ativos por marca
+	List<ProdutoResumo> buscarPorMarca(Long marcaId);
 
 	// Buscar por modelo
-	List<Produto> buscarPorModelo(String modelo);
+	List<ProdutoResumo> buscarPorModelo(String modelo);
+
+	PaginaCursor<ProdutoResumo> buscarPorModeloPaginado(String modelo, Long cursor, Integer tamanho);
 
-	// Buscar por localização
-	List<Produto> buscarPorLocalizacao(String localizacao);
+	// Buscar produtos ativos por localização
+	List<ProdutoResumo> buscarPorLocalizacao(Long localizacaoId);
 
 	// Buscar por estado de conservação
-	List<Produto> buscarPorEstadoConservacao(String estadoConservacao);
+	List<ProdutoResumo> buscarPorEstadoConservacao(String estadoConservacao);
 
 	// ============ BUSCA AVANÇADA ============
 
-	// Busca geral (nome, código ou número de série)
-	List<Produto> buscarPorTermo(String termo);
+	// Busca geral (nome, código ou número de série), limitada aos mais relevantes
+	List<ProdutoResumo> buscarPorTermo(String termo, Integer limite);
 
-	// Buscar por múltiplos filtros
-	List<Produto> buscarPorFiltros(String categoria, String marca, String estadoConservacao);
+	// Buscar produtos ativos por múltiplos filtros (ids das associações)
+	List<ProdutoResumo> buscarPorFiltros(FiltroProduto filtro);
 
 	// ============ RELATÓRIOS E ESTATÍSTICAS ============
 
@@ -82,10 +99,10 @@ public interface ProdutoService {
 	Map<String, Long> obterEstatisticasPorCategoria();
 
 	// Listar produtos com baixa disponibilidade
-	List<Produto> listarComBaixaDisponibilidade(Integer quantidadeMinima);
+	List<ProdutoResumo> listarComBaixaDisponibilidade(Integer quantidadeMinima);
 
 	// Obter contagem total de itens
-	Map<String, Integer> obterContagemTotalItens();
+	TotaisInventario obterContagemTotalItens();
 
 	// Verificar duplicidade de código ou número de série
 	boolean existeCodigo(String codigo);
@@ -1,17 +1,35 @@
 package com.br.service;
 
+import com.br.dto.ContagemCategoria;
+import com.br.dto.FiltroProduto;
+import com.br.dto.ItemEmprestimo;
+import com.br.dto.PaginaCursor;
+import com.br.dto.ProdutoResumo;
+import com.br.dto.TotaisInventario;
+import com.br.exception.ConflitoException;
+import com.br.exception.DadosInvalidosException;
+import com.br.exception.NegocioException;
+import com.br.exception.RecursoNaoEncontradoException;
+import com.br.exception.RegraNegocioException;
 import com.br.model.Produto;
 import com.br.repository.ProdutoRepository;
+import com.br.service.ContadoresInventario.Situacao;
+import com.br.service.FiltrosExistencia.Chave;
 import com.br.service.ProdutoService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +38,31 @@ public class ProdutoServiceImpl implements ProdutoService {
     @Autowired
     private ProdutoRepository produtoRepository;
     
+    @Autowired
+    private CoordenadorMovimentacao coordenadorMovimentacao;
+    
+    @Autowired
+    private RetentativaOtimista retentativaOtimista;
+    
+    @Autowired
+    private IndiceBuscaProdutos indiceBusca;
+    
+    @Autowired
+    private ContadoresInventario contadores;
+    
+    @Autowired
+    private CacheProdutos cacheProdutos;
+    
+    @Autowired
+    private FiltrosExistencia filtrosExistencia;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Requer a extensão pg_trgm e os índices de schema-postgresql.sql
+    @Value("${inventario.busca.trigram.habilitado:false}")
+    private boolean buscaTrigramHabilitada;
+    
     // ============ CRUD BÁSICO ============
     
     @Override
@@ -32,28 +75,53 @@ public class ProdutoServiceImpl implements ProdutoService {
             produto.setQuantidadeDisponivel(produto.getQuantidadeTotal());
         }
         
-        return produtoRepository.save(produto);
+        registrarChaves(produto);
+        Produto salvo = produtoRepository.save(produto);
+        Situacao depois = Situacao.de(salvo);
+        TransacaoUtils.aposCommit(() -> {
+            indiceBusca.atualizar(salvo);
+            contadores.aplicar(null, depois);
+        });
+        return salvo;
     }
     
+    // A versão de produtoAtualizado é a que o cliente leu: se o produto mudou desde então
+    // (ex.: um empréstimo), responde 409 em vez de reaplicar o pedido sobre o estado novo.
+    // Uma alteração entre esta leitura e o commit é barrada pelo @Version (também 409)
     @Override
     @Transactional
     public Produto atualizarProduto(Long id, Produto produtoAtualizado) {
         Produto produtoExistente = produtoRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado com ID: " + id));
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
+        if (produtoAtualizado.getVersao() != null &&
+            !produtoAtualizado.getVersao().equals(produtoExistente.getVersao())) {
+            throw new ConflitoException("Produto alterado por outra operação (versão atual: " +
+                produtoExistente.getVersao() + "), recarregue e tente novamente");
+        }
+        Situacao antes = Situacao.de(produtoExistente);
         
         // Validar se código foi alterado e já existe em outro produto
         if (!produtoExistente.getCodigo().equals(produtoAtualizado.getCodigo()) &&
-            produtoRepository.existsByCodigo(produtoAtualizado.getCodigo())) {
-            throw new IllegalArgumentException("Código já existe: " + produtoAtualizado.getCodigo());
+            existeCodigo(produtoAtualizado.getCodigo())) {
+            throw new ConflitoException("Código já existe: " + produtoAtualizado.getCodigo());
         }
         
         // Validar se número de série foi alterado e já existe
         if (produtoAtualizado.getNumeroSerie() != null &&
             !produtoAtualizado.getNumeroSerie().equals(produtoExistente.getNumeroSerie()) &&
-            produtoRepository.existsByNumeroSerie(produtoAtualizado.getNumeroSerie())) {
-            throw new IllegalArgumentException("Número de série já existe: " + produtoAtualizado.getNumeroSerie());
+            existeNumeroSerie(produtoAtualizado.getNumeroSerie())) {
+            throw new ConflitoException("Número de série já existe: " + produtoAtualizado.getNumeroSerie());
         }
         
+        // Mantém os itens emprestados ao mudar a quantidade total; o disponível é
+        // recalculado sobre o valor lido do banco, nunca copiado do pedido
+        int emprestados = produtoExistente.getQuantidadeTotal() - produtoExistente.getQuantidadeDisponivel();
+        if (produtoAtualizado.getQuantidadeTotal() < emprestados) {
+            throw new RegraNegocioException("Quantidade total menor que a emprestada. Emprestados: " +
+                emprestados + ", Total solicitado: " + produtoAtualizado.getQuantidadeTotal());
+        }
+        int novaDisponibilidade = produtoAtualizado.getQuantidadeTotal() - emprestados;
+        
         // Atualizar campos permitidos
         produtoExistente.setNome(produtoAtualizado.getNome());
         produtoExistente.setDescricao(produtoAtualizado.getDescricao());
@@ -63,213 +131,373 @@ public class ProdutoServiceImpl implements ProdutoService {
         produtoExistente.setMarca(produtoAtualizado.getMarca());
         produtoExistente.setModelo(produtoAtualizado.getModelo());
         produtoExistente.setQuantidadeTotal(produtoAtualizado.getQuantidadeTotal());
+        produtoExistente.setQuantidadeDisponivel(novaDisponibilidade);
         produtoExistente.setLocalizacao(produtoAtualizado.getLocalizacao());
         produtoExistente.setEstadoConservacao(produtoAtualizado.getEstadoConservacao());
         produtoExistente.setDataAquisicao(produtoAtualizado.getDataAquisicao());
         produtoExistente.setGarantiaAte(produtoAtualizado.getGarantiaAte());
         produtoExistente.setObservacoes(produtoAtualizado.getObservacoes());
+        if (produtoAtualizado.getAtivo() != null) {
+            produtoExistente.setAtivo(produtoAtualizado.getAtivo());
+        }
         
-        return produtoRepository.save(produtoExistente);
+        registrarChaves(produtoExistente);
+        Produto salvo = produtoRepository.save(produtoExistente);
+        Situacao depois = Situacao.de(salvo);
+        TransacaoUtils.aposCommit(() -> {
+            indiceBusca.atualizar(salvo);
+            contadores.aplicar(antes, depois);
+            cacheProdutos.invalidar(id);
+        });
+        return salvo;
     }
     
     @Override
     public Optional<Produto> buscarPorId(Long id) {
-        return produtoRepository.findById(id);
+        return produtoRepository.buscarDetalhePorId(id);
     }
     
     @Override
     public Optional<Produto> buscarPorCodigo(String codigo) {
-        return produtoRepository.findByCodigo(codigo);
+        return cacheProdutos.porCodigo(codigo, () -> produtoRepository.findByCodigo(codigo));
     }
     
     @Override
     public Optional<Produto> buscarPorNumeroSerie(String numeroSerie) {
-        return produtoRepository.findByNumeroSerie(numeroSerie);
+        return cacheProdutos.porNumeroSerie(numeroSerie, () -> produtoRepository.findByNumeroSerie(numeroSerie));
     }
     
     @Override
-    public List<Produto> listarTodos() {
-        return produtoRepository.findAll();
+    public List<ProdutoResumo> listarTodos() {
+        return produtoRepository.listarResumos();
     }
     
     @Override
-    public List<Produto> listarAtivos() {
-        return produtoRepository.findByAtivoTrue();
+    public List<ProdutoResumo> listarAtivos() {
+        return produtoRepository.listarResumosAtivos();
+    }
+    
+    @Override
+    public PaginaCursor<ProdutoResumo> listarTodosPaginado(Long cursor, Integer tamanho) {
+        int limite = Paginacao.normalizarTamanho(tamanho);
+        // Busca um item a mais para saber se existe próxima página
+        List<ProdutoResumo> produtos = produtoRepository.listarAposCursor(
+            cursor == null ? 0L : cursor, PageRequest.of(0, limite + 1));
+        return Paginacao.montarPagina(produtos, limite, ProdutoResumo::id);
+    }
+    
+    @Override
+    public PaginaCursor<ProdutoResumo> listarAtivosPaginado(Long cursor, Integer tamanho) {
+        int limite = Paginacao.normalizarTamanho(tamanho);
+        List<ProdutoResumo> produtos = produtoRepository.listarAtivosAposCursor(
+            cursor == null ? 0L : cursor, PageRequest.of(0, limite + 1));
+        return Paginacao.montarPagina(produtos, limite, ProdutoResumo::id);
     }
     
     @Override
-    @Transactional
     public void desativarProduto(Long id) {
-        Produto produto = produtoRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado com ID: " + id));
-        
-        produto.setAtivo(false);
-        produtoRepository.save(produto);
+        retentativaOtimista.executarSemRetorno("desativarProduto", () -> {
+            Produto produto = produtoRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
+            Situacao antes = Situacao.de(produto);
+            
+            produto.setAtivo(false);
+            produtoRepository.save(produto);
+            Situacao depois = Situacao.de(produto);
+            TransacaoUtils.aposCommit(() -> {
+                indiceBusca.remover(id);
+                contadores.aplicar(antes, depois);
+                cacheProdutos.invalidar(id);
+            });
+        });
     }
     
     // ============ CONTROLE DE DISPONIBILIDADE ============
     
+    // Sem @Transactional: o coordenador abre a transação do lote de movimentações
     @Override
-    @Transactional
     public Produto registrarEmprestimo(Long id, Integer quantidade) {
-        validarQuantidadeEmprestimo(id, quantidade);
+        if (quantidade == null || quantidade <= 0) {
+            throw new DadosInvalidosException("Quantidade deve ser maior que zero");
+        }
         
-        Produto produto = produtoRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado com ID: " + id));
+        // UPDATE condicional: existência, status ativo e saldo são verificados no mesmo comando,
+        // então o empréstimo custa uma escrita e uma leitura (a do produto retornado)
+        if (!coordenadorMovimentacao.emprestar(id, quantidade)) {
+            throw rejeicaoEmprestimo(id, quantidade);
+        }
+        // Só produtos ativos emprestam (condição do UPDATE)
+        TransacaoUtils.aposCommit(() -> {
+            contadores.movimentar(-quantidade);
+            cacheProdutos.invalidar(id);
+        });
         
-        int novaDisponibilidade = produto.getQuantidadeDisponivel() - quantidade;
+        return produtoRepository.buscarDetalhePorId(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
+    }
+    
+    // Sem lock pessimista: as linhas são lidas em ordem de id e o @Version detecta
+    // alterações concorrentes no flush; em caso de conflito o lote inteiro é refeito
+    @Override
+    public List<Produto> registrarEmprestimoEmLote(List<ItemEmprestimo> itens) {
+        if (itens == null || itens.isEmpty()) {
+            throw new DadosInvalidosException("Informe ao menos um item para empréstimo");
+        }
         
-        if (novaDisponibilidade < 0) {
-            throw new IllegalArgumentException(
-                "Disponibilidade insuficiente. Disponível: " + 
-                produto.getQuantidadeDisponivel() + 
-                ", Solicitado: " + quantidade
-            );
+        // Agrupa itens repetidos; TreeMap mantém os ids em ordem crescente
+        Map<Long, Integer> quantidadesPorId = new TreeMap<>();
+        for (ItemEmprestimo item : itens) {
+            if (item.produtoId() == null) {
+                throw new DadosInvalidosException("produtoId é obrigatório");
+            }
+            if (item.quantidade() == null || item.quantidade() <= 0) {
+                throw new DadosInvalidosException("Quantidade deve ser maior que zero");
+            }
+            quantidadesPorId.merge(item.produtoId(), item.quantidade(), Integer::sum);
         }
         
-        produto.setQuantidadeDisponivel(novaDisponibilidade);
-        return produtoRepository.save(produto);
+        return retentativaOtimista.executar("registrarEmprestimoEmLote", () -> {
+            List<Produto> produtos = produtoRepository.buscarPorIdsEmOrdem(quantidadesPorId.keySet());
+            
+            if (produtos.size() != quantidadesPorId.size()) {
+                Map<Long, Integer> ausentes = new TreeMap<>(quantidadesPorId);
+                for (Produto produto : produtos) {
+                    ausentes.remove(produto.getId());
+                }
+                throw rejeitarEmprestimo("nao_encontrado",
+                    new RecursoNaoEncontradoException("Produto não encontrado com ID: " + ausentes.keySet()));
+            }
+            
+            // Valida o lote inteiro antes de alterar qualquer produto
+            for (Produto produto : produtos) {
+                int quantidade = quantidadesPorId.get(produto.getId());
+                
+                if (!produto.getAtivo()) {
+                    throw rejeitarEmprestimo("inativo",
+                        new RegraNegocioException("Produto está inativo: " + produto.getId()));
+                }
+                if (produto.getQuantidadeDisponivel() < quantidade) {
+                    throw rejeitarEmprestimo("saldo_insuficiente", new RegraNegocioException(
+                        "Disponibilidade insuficiente para o produto " + produto.getId() + 
+                        ". Disponível: " + produto.getQuantidadeDisponivel() + 
+                        ", Solicitado: " + quantidade
+                    ));
+                }
+            }
+            
+            long totalEmprestado = 0;
+            for (Produto produto : produtos) {
+                int quantidade = quantidadesPorId.get(produto.getId());
+                produto.setQuantidadeDisponivel(produto.getQuantidadeDisponivel() - quantidade);
+                totalEmprestado += quantidade;
+            }
+            long deltaDisponiveis = -totalEmprestado;
+            TransacaoUtils.aposCommit(() -> {
+                contadores.movimentar(deltaDisponiveis);
+                quantidadesPorId.keySet().forEach(cacheProdutos::invalidar);
+            });
+            
+            // Os UPDATEs saem juntos e em ordem de id no flush (hibernate.jdbc.batch_size/order_updates)
+            return produtoRepository.saveAll(produtos);
+        });
     }
     
     @Override
-    @Transactional
     public Produto registrarDevolucao(Long id, Integer quantidade) {
-        Produto produto = produtoRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado com ID: " + id));
-        
-        int novaDisponibilidade = produto.getQuantidadeDisponivel() + quantidade;
+        if (quantidade == null || quantidade <= 0) {
+            throw new DadosInvalidosException("Quantidade deve ser maior que zero");
+        }
         
-        if (novaDisponibilidade > produto.getQuantidadeTotal()) {
-            throw new IllegalArgumentException(
-                "Devolução excede quantidade total. Total: " + 
-                produto.getQuantidadeTotal() + 
-                ", Após devolução: " + novaDisponibilidade
-            );
+        if (!coordenadorMovimentacao.devolver(id, quantidade)) {
+            throw rejeicaoDevolucao(id, quantidade);
         }
         
-        produto.setQuantidadeDisponivel(novaDisponibilidade);
-        return produtoRepository.save(produto);
+        Produto produto = produtoRepository.buscarDetalhePorId(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
+        // Devoluções de produtos inativos não entram nos totais
+        if (produto.getAtivo()) {
+            TransacaoUtils.aposCommit(() -> contadores.movimentar(quantidade));
+        }
+        cacheProdutos.invalidarAposCommit(id);
+        return produto;
     }
     
     @Override
     public boolean verificarDisponibilidade(Long id, Integer quantidadeRequerida) {
-        Optional<Produto> produtoOpt = produtoRepository.findById(id);
-        
-        if (produtoOpt.isEmpty()) {
-            return false;
-        }
-        
-        Produto produto = produtoOpt.get();
+        // Produto inexistente é 404, não "indisponível"
+        Produto produto = produtoRepository.findById(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
         return produto.getAtivo() && 
                produto.getQuantidadeDisponivel() >= quantidadeRequerida;
     }
     
     @Override
-    public List<Produto> listarDisponiveisParaEmprestimo() {
+    public List<ProdutoResumo> listarDisponiveisParaEmprestimo() {
         return produtoRepository.findProdutosDisponiveisParaEmprestimo();
     }
     
     @Override
-    public List<Produto> listarSemDisponibilidade() {
+    public List<ProdutoResumo> listarSemDisponibilidade() {
         return produtoRepository.findProdutosSemDisponibilidade();
     }
     
     // ============ CONSULTAS POR ATRIBUTOS ============
     
     @Override
-    public List<Produto> buscarPorCategoria(String categoria) {
-        return produtoRepository.findByCategoria(categoria);
+    public List<ProdutoResumo> buscarPorCategoria(Long categoriaId) {
+        return produtoRepository.filtrarAtivos(new FiltroProduto(categoriaId, null, null, null));
     }
     
     @Override
-    public List<Produto> buscarPorMarca(String marca) {
-        return produtoRepository.findByMarca(marca);
+    public List<ProdutoResumo> buscarPorMarca(Long marcaId) {
+        return produtoRepository.filtrarAtivos(new FiltroProduto(null, marcaId, null, null));
     }
     
     @Override
-    public List<Produto> buscarPorModelo(String modelo) {
-        // Implementação simples - pode ser melhorada com repository method
-        return produtoRepository.findAll().stream()
-            .filter(p -> p.getModelo() != null && p.getModelo().equalsIgnoreCase(modelo))
-            .collect(Collectors.toList());
+    public List<ProdutoResumo> buscarPorModelo(String modelo) {
+        return produtoRepository.buscarPorModelo(modelo);
     }
     
     @Override
-    public List<Produto> buscarPorLocalizacao(String localizacao) {
-        return produtoRepository.findByLocalizacao(localizacao);
+    public PaginaCursor<ProdutoResumo> buscarPorModeloPaginado(String modelo, Long cursor, Integer tamanho) {
+        int limite = Paginacao.normalizarTamanho(tamanho);
+        List<ProdutoResumo> produtos = produtoRepository.buscarPorModeloAposCursor(
+            modelo, cursor == null ? 0L : cursor, PageRequest.of(0, limite + 1));
+        return Paginacao.montarPagina(produtos, limite, ProdutoResumo::id);
     }
     
     @Override
-    public List<Produto> buscarPorEstadoConservacao(String estadoConservacao) {
-        return produtoRepository.findByEstadoConservacao(estadoConservacao);
+    public List<ProdutoResumo> buscarPorLocalizacao(Long localizacaoId) {
+        return produtoRepository.filtrarAtivos(new FiltroProduto(null, null, localizacaoId, null));
+    }
+    
+    @Override
+    public List<ProdutoResumo> buscarPorEstadoConservacao(String estadoConservacao) {
+        return produtoRepository.listarResumosPorEstadoConservacao(estadoConservacao);
     }
     
     // ============ BUSCA AVANÇADA ============
     
     @Override
-    public List<Produto> buscarPorTermo(String termo) {
+    public List<ProdutoResumo> buscarPorTermo(String termo, Integer limite) {
+        int tamanho = Paginacao.normalizarTamanho(limite);
         if (termo == null || termo.trim().isEmpty()) {
-            return listarAtivos();
+            return produtoRepository.listarAtivosAposCursor(0L, PageRequest.of(0, tamanho));
+        }
+        
+        if (indiceBusca.isPronto()) {
+            return buscarPorIdsNaOrdem(indiceBusca.buscar(termo, tamanho));
         }
-        return produtoRepository.buscarPorTermoGeral(termo.trim());
+        
+        String termoNormalizado = termo.trim().toLowerCase(Locale.ROOT);
+        String padrao = PadraoLike.contendo(termoNormalizado);
+        if (buscaTrigramHabilitada) {
+            return buscarPorIdsNaOrdem(produtoRepository.buscarIdsPorTrigrama(termoNormalizado, padrao, tamanho));
+        }
+        return produtoRepository.buscarPorTermoGeral(padrao, PageRequest.of(0, tamanho));
     }
     
     @Override
-    public List<Produto> buscarPorFiltros(String categoria, String marca, String estadoConservacao) {
-        return produtoRepository.findProdutosPorFiltros(categoria, marca, estadoConservacao);
+    public List<ProdutoResumo> buscarPorFiltros(FiltroProduto filtro) {
+        return produtoRepository.filtrarAtivos(filtro);
     }
      
     // ============ RELATÓRIOS E ESTATÍSTICAS ============
     
     @Override
     public Map<String, Long> obterEstatisticasPorCategoria() {
-        List<Object[]> resultados = produtoRepository.contarProdutosPorCategoria();
-        Map<String, Long> estatisticas = new HashMap<>();
-        
-        for (Object[] resultado : resultados) {
-            String categoria = (String) resultado[0];
-            Long quantidade = (Long) resultado[1];
-            estatisticas.put(categoria, quantidade);
+        if (contadores.isPronto()) {
+            return contadores.produtosPorCategoria();
         }
         
+        Map<String, Long> estatisticas = new HashMap<>();
+        for (ContagemCategoria contagem : produtoRepository.contarProdutosPorCategoria()) {
+            estatisticas.put(contagem.categoria(), contagem.quantidade());
+        }
         return estatisticas;
     }
     
     @Override
-    public List<Produto> listarComBaixaDisponibilidade(Integer quantidadeMinima) {
+    public List<ProdutoResumo> listarComBaixaDisponibilidade(Integer quantidadeMinima) {
         return produtoRepository.findProdutosComBaixaDisponibilidade(quantidadeMinima);
     }
     
     @Override
-    public Map<String, Integer> obterContagemTotalItens() {
-        List<Produto> produtosAtivos = listarAtivos();
-        
-        int totalItens = 0;
-        int totalDisponiveis = 0;
-        int totalEmprestados = 0;
-        
-        for (Produto produto : produtosAtivos) {
-            totalItens += produto.getQuantidadeTotal();
-            totalDisponiveis += produto.getQuantidadeDisponivel();
-            totalEmprestados += (produto.getQuantidadeTotal() - produto.getQuantidadeDisponivel());
+    public TotaisInventario obterContagemTotalItens() {
+        if (contadores.isPronto()) {
+            return contadores.totais();
         }
-        
-        Map<String, Integer> contagem = new HashMap<>();
-        contagem.put("totalItens", totalItens);
-        contagem.put("totalDisponiveis", totalDisponiveis);
-        contagem.put("totalEmprestados", totalEmprestados);
-        
-        return contagem;
+        return produtoRepository.calcularTotaisInventario();
     }
     
     @Override
     public boolean existeCodigo(String codigo) {
-        return produtoRepository.existsByCodigo(codigo);
+        // Negativo do filtro de Bloom é definitivo: só um possível positivo consulta o banco
+        return filtrosExistencia.podeExistir(Chave.CODIGO, codigo) && produtoRepository.existsByCodigo(codigo);
     }
     
     @Override
     public boolean existeNumeroSerie(String numeroSerie) {
-        return produtoRepository.existsByNumeroSerie(numeroSerie);
+        return filtrosExistencia.podeExistir(Chave.NUMERO_SERIE, numeroSerie) &&
+               produtoRepository.existsByNumeroSerie(numeroSerie);
+    }
+    
+    // ============ MÉTODOS AUXILIARES ============
+    
+    // Só executado quando o UPDATE condicional não afetou nenhuma linha
+    private NegocioException rejeicaoEmprestimo(Long id, Integer quantidade) {
+        Optional<Produto> produtoOpt = produtoRepository.findById(id);
+        if (produtoOpt.isEmpty()) {
+            return rejeitarEmprestimo("nao_encontrado",
+                new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
+        }
+        
+        Produto produto = produtoOpt.get();
+        if (!produto.getAtivo()) {
+            return rejeitarEmprestimo("inativo", new RegraNegocioException("Produto está inativo"));
+        }
+        
+        return rejeitarEmprestimo("saldo_insuficiente", new RegraNegocioException(
+            "Disponibilidade insuficiente. Disponível: " + 
+            produto.getQuantidadeDisponivel() + 
+            ", Solicitado: " + quantidade
+        ));
+    }
+    
+    // Métrica inventario.emprestimos.rejeitados (tag motivo)
+    private NegocioException rejeitarEmprestimo(String motivo, NegocioException erro) {
+        meterRegistry.counter("inventario.emprestimos.rejeitados", "motivo", motivo).increment();
+        return erro;
+    }
+    
+    private NegocioException rejeicaoDevolucao(Long id, Integer quantidade) {
+        Produto produto = produtoRepository.findById(id)
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado com ID: " + id));
+        
+        return new RegraNegocioException(
+            "Devolução excede quantidade total. Total: " + 
+            produto.getQuantidadeTotal() + 
+            ", Após devolução: " + (produto.getQuantidadeDisponivel() + quantidade)
+        );
+    }
+    
+    // Antes de gravar: o filtro de Bloom precisa conhecer o valor antes de ele existir no banco
+    private void registrarChaves(Produto produto) {
+        filtrosExistencia.registrar(Chave.CODIGO, produto.getCodigo());
+        filtrosExistencia.registrar(Chave.NUMERO_SERIE, produto.getNumeroSerie());
+    }
+    
+    // Carrega os resumos pela chave primária e devolve na ordem de relevância da busca
+    private List<ProdutoResumo> buscarPorIdsNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProdutoResumo> porId = produtoRepository.listarResumosPorIds(ids).stream()
+            .collect(Collectors.toMap(ProdutoResumo::id, produto -> produto));
+        return ids.stream()
+            .map(porId::get)
+            .filter(produto -> produto != null)
+            .collect(Collectors.toList());
     }
     
     // ============ VALIDAÇÕES ============
@@ -277,26 +505,26 @@ public class ProdutoServiceImpl implements ProdutoService {
     @Override
     public void validarProduto(Produto produto) {
         if (produto.getNome() == null || produto.getNome().trim().isEmpty()) {
-            throw new IllegalArgumentException("Nome do produto é obrigatório");
+            throw new DadosInvalidosException("Nome do produto é obrigatório");
         }
         
         if (produto.getCodigo() == null || produto.getCodigo().trim().isEmpty()) {
-            throw new IllegalArgumentException("Código do produto é obrigatório");
+            throw new DadosInvalidosException("Código do produto é obrigatório");
         }
         
         if (produto.getQuantidadeTotal() == null || produto.getQuantidadeTotal() < 0) {
-            throw new IllegalArgumentException("Quantidade total deve ser maior ou igual a zero");
+            throw new DadosInvalidosException("Quantidade total deve ser maior ou igual a zero");
         }
         
         // Validar duplicidade
         if (produto.getId() == null) {
-            if (produtoRepository.existsByCodigo(produto.getCodigo())) {
-                throw new IllegalArgumentException("Código já existe: " + produto.getCodigo());
+            if (existeCodigo(produto.getCodigo())) {
+                throw new ConflitoException("Código já existe: " + produto.getCodigo());
             }
             
             if (produto.getNumeroSerie() != null && 
-                produtoRepository.existsByNumeroSerie(produto.getNumeroSerie())) {
-                throw new IllegalArgumentException("Número de série já existe: " + produto.getNumeroSerie());
+                existeNumeroSerie(produto.getNumeroSerie())) {
+                throw new ConflitoException("Número de série já existe: " + produto.getNumeroSerie());
             }
         }
     }
@@ -304,14 +532,14 @@ public class ProdutoServiceImpl implements ProdutoService {
     @Override
     public void validarQuantidadeEmprestimo(Long id, Integer quantidade) {
         if (quantidade == null || quantidade <= 0) {
-            throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+            throw new DadosInvalidosException("Quantidade deve ser maior que zero");
         }
         
         Produto produto = produtoRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado"));
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Produto não encontrado"));
         
         if (!produto.getAtivo()) {
-            throw new IllegalArgumentException("Produto está inativo");
+            throw new RegraNegocioException("Produto está inativo");
         }
     }
 }
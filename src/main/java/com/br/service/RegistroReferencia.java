@@ -0,0 +1,115 @@
+package com.br.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Cópia em memória de uma tabela de referência pequena (categorias, marcas, localizações).
+// As leituras usam um instantâneo imutável (por id, por nome e listas já ordenadas) sem lock
+// e sem ir ao banco; cada escrita recarrega a tabela após o commit e troca o instantâneo de uma vez.
+// As entidades devolvidas são compartilhadas entre requisições: alterações devem partir de
+// uma instância lida pelo repositório, nunca das devolvidas aqui.
+public final class RegistroReferencia<T> {
+
+    private final Supplier<List<T>> carregador;
+    private final Function<T, Long> id;
+    private final Function<T, String> nome;
+    private final Predicate<T> ativo;
+    private final ReentrantLock recarga = new ReentrantLock();
+    private volatile Instantaneo<T> atual;
+
+    public RegistroReferencia(Supplier<List<T>> carregador, Function<T, Long> id,
+                              Function<T, String> nome, Predicate<T> ativo) {
+        this.carregador = carregador;
+        this.id = id;
+        this.nome = nome;
+        this.ativo = ativo;
+    }
+
+    public Optional<T> porId(Long chave) {
+        return chave == null ? Optional.empty() : Optional.ofNullable(instantaneo().porId().get(chave));
+    }
+
+    public Optional<T> porNome(String chave) {
+        return chave == null ? Optional.empty() : Optional.ofNullable(instantaneo().porNome().get(chave));
+    }
+
+    // Todos os registros, ordenados por nome
+    public List<T> todos() {
+        return instantaneo().todos();
+    }
+
+    // Registros ativos, ordenados por nome
+    public List<T> ativos() {
+        return instantaneo().ativos();
+    }
+
+    public List<T> filtrar(Predicate<T> filtro) {
+        return instantaneo().todos().stream().filter(filtro).toList();
+    }
+
+    // Chamado pelos serviços após cada escrita; fora de transação recarrega na hora
+    public void recarregarAposCommit() {
+        TransacaoUtils.aposCommit(this::recarregar);
+    }
+
+    // Serializada: uma recarga iniciada depois de um commit sempre termina por último,
+    // então o instantâneo final nunca é anterior à última escrita. ReentrantLock em vez de
+    // synchronized porque a leitura do banco acontece com o lock: não prende threads virtuais
+    public void recarregar() {
+        recarga.lock();
+        try {
+            recarregarComLock();
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    private void recarregarComLock() {
+        List<T> registros = new ArrayList<>(carregador.get());
+        registros.sort(Comparator.comparing(nome, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        Map<Long, T> porId = new HashMap<>();
+        Map<String, T> porNome = new HashMap<>();
+        for (T registro : registros) {
+            porId.put(id.apply(registro), registro);
+            if (nome.apply(registro) != null) {
+                porNome.put(nome.apply(registro), registro);
+            }
+        }
+
+        atual = new Instantaneo<>(
+            Collections.unmodifiableMap(porId),
+            Collections.unmodifiableMap(porNome),
+            List.copyOf(registros),
+            registros.stream().filter(ativo).toList());
+    }
+
+    // Carga preguiçosa: a tabela só é lida no primeiro acesso (depois dos inicializadores)
+    private Instantaneo<T> instantaneo() {
+        Instantaneo<T> instantaneo = atual;
+        if (instantaneo == null) {
+            recarga.lock();
+            try {
+                if (atual == null) {
+                    recarregarComLock();
+                }
+                instantaneo = atual;
+            } finally {
+                recarga.unlock();
+            }
+        }
+        return instantaneo;
+    }
+
+    private record Instantaneo<T>(Map<Long, T> porId, Map<String, T> porNome, List<T> todos, List<T> ativos) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.br.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Executa uma operação em transação própria e a repete quando outra transação alterou
+// a mesma linha antes (conflito de @Version). Cada tentativa relê o estado atual do banco.
+// Métricas: inventario.otimista.conflitos, inventario.otimista.retentativas e
+// inventario.otimista.esgotadas, todas com a tag "operacao".
+@Component
+public class RetentativaOtimista {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxTentativas;
+    private final long esperaInicialMs;
+
+    public RetentativaOtimista(PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventario.otimista.max-tentativas:4}") int maxTentativas,
+                               @Value("${inventario.otimista.espera-inicial-ms:10}") long esperaInicialMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxTentativas = maxTentativas;
+        this.esperaInicialMs = esperaInicialMs;
+    }
+
+    public <T> T executar(String operacao, Supplier<T> acao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> acao.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("inventario.otimista.conflitos", "operacao", operacao).increment();
+
+                if (tentativa >= maxTentativas) {
+                    meterRegistry.counter("inventario.otimista.esgotadas", "operacao", operacao).increment();
+                    throw e;
+                }
+
+                meterRegistry.counter("inventario.otimista.retentativas", "operacao", operacao).increment();
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    public void executarSemRetorno(String operacao, Runnable acao) {
+        executar(operacao, () -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    // Backoff exponencial com jitter para que as transações em conflito não colidam de novo
+    private void aguardar(int tentativa) {
+        long base = esperaInicialMs << (tentativa - 1);
+        long espera = base / 2 + ThreadLocalRandom.current().nextLong(base + 1);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retentativa interrompida", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.br.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Utilitários de transação compartilhados pelos serviços
+public final class TransacaoUtils {
+
+    private TransacaoUtils() {
+    }
+
+    // Executa a ação só depois do commit da transação atual (nada acontece em rollback).
+    // Fora de transação, executa imediatamente
+    public static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
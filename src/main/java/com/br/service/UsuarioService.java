@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import com.br.dto.PaginaCursor;
+import com.br.dto.PaginaResultado;
+import com.br.dto.TotaisUsuarios;
 import com.br.model.Usuario;
 
 public interface UsuarioService {
@@ -36,11 +39,15 @@ public interface UsuarioService {
 	List<Usuario>buscarPorDepartamento(String despartamento);
 	
 	List<Usuario>buscarPorCargo(String cargo);
+
+	PaginaCursor<Usuario> buscarPorCargoPaginado(String cargo, Long cursor, Integer tamanho);
 	
 	// ============ BUSCA AVANÇADA ============
 	
-    // Busca geral (nome, email ou matrícula)
-	List<Usuario>buscarPorTermo(String termo);
+    // Busca geral: prefixo de email ou matrícula, ou trecho do nome; mais relevantes primeiro
+	List<Usuario>buscarPorTermo(String termo, Integer tamanho);
+
+	PaginaResultado<Usuario> buscarPorTermoPaginado(String termo, Integer pagina, Integer tamanho);
 	
     // ============ VALIDAÇÕES ============
 
@@ -53,7 +60,7 @@ public interface UsuarioService {
     // ============ RELATÓRIOS E ESTATÍSTICAS ============
 	
 	Map<String, Long> contarPorDepartamento();
-	Map<String, Integer>obterContagemTotalUsuarios();
+	TotaisUsuarios obterContagemTotalUsuarios();
 	
 	
 }
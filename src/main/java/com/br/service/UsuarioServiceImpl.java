@@ -1,16 +1,27 @@
 // UsuarioServiceImpl.java
 package com.br.service;
 
+import com.br.dto.PaginaCursor;
+import com.br.dto.PaginaResultado;
+import com.br.dto.TotaisUsuarios;
+import com.br.exception.ConflitoException;
+import com.br.exception.DadosInvalidosException;
+import com.br.exception.RecursoNaoEncontradoException;
 import com.br.model.Usuario;
 import com.br.repository.*;
 import com.br.*;
 import com.br.repository.UsuarioRepository;
+import com.br.service.FiltrosExistencia.Chave;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,6 +32,16 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
     
+    @Autowired
+    private RetentativaOtimista retentativaOtimista;
+    
+    @Autowired
+    private FiltrosExistencia filtrosExistencia;
+    
+    // Requer a extensão pg_trgm e os índices de schema-postgresql.sql
+    @Value("${inventario.busca.trigram.habilitado:false}")
+    private boolean buscaTrigramHabilitada;
+    
     // ============ CRUD BÁSICO ============
     
     @Override
@@ -33,26 +54,34 @@ public class UsuarioServiceImpl implements UsuarioService {
             usuario.setAtivo(true);
         }
         
+        registrarChaves(usuario);
         return usuarioRepository.save(usuario);
     }
     
+    // A versão de usuarioAtualizado é a que o cliente leu: se o usuário mudou desde então,
+    // responde 409 em vez de sobrescrever; entre esta leitura e o commit vale o @Version
     @Override
     @Transactional
     public Usuario atualizarUsuario(Long id, Usuario usuarioAtualizado) {
         Usuario usuarioExistente = usuarioRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
+            .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + id));
+        if (usuarioAtualizado.getVersao() != null &&
+            !usuarioAtualizado.getVersao().equals(usuarioExistente.getVersao())) {
+            throw new ConflitoException("Usuário alterado por outra operação (versão atual: " +
+                usuarioExistente.getVersao() + "), recarregue e tente novamente");
+        }
         
         // Validar se email foi alterado e já existe em outro usuário
         if (!usuarioExistente.getEmail().equals(usuarioAtualizado.getEmail()) &&
-            usuarioRepository.existsByEmail(usuarioAtualizado.getEmail())) {
-            throw new IllegalArgumentException("Email já existe: " + usuarioAtualizado.getEmail());
+            existeEmail(usuarioAtualizado.getEmail())) {
+            throw new ConflitoException("Email já existe: " + usuarioAtualizado.getEmail());
         }
         
         // Validar se matrícula foi alterada e já existe
         if (usuarioAtualizado.getMatricula() != null &&
             !usuarioAtualizado.getMatricula().equals(usuarioExistente.getMatricula()) &&
-            usuarioRepository.existsByMatricula(usuarioAtualizado.getMatricula())) {
-            throw new IllegalArgumentException("Matrícula já existe: " + usuarioAtualizado.getMatricula());
+            existeMatricula(usuarioAtualizado.getMatricula())) {
+            throw new ConflitoException("Matrícula já existe: " + usuarioAtualizado.getMatricula());
         }
         
         // Atualizar campos permitidos
@@ -62,7 +91,11 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuarioExistente.setDepartamento(usuarioAtualizado.getDepartamento());
         usuarioExistente.setCargo(usuarioAtualizado.getCargo());
         usuarioExistente.setTelefone(usuarioAtualizado.getTelefone());
+        if (usuarioAtualizado.getAtivo() != null) {
+            usuarioExistente.setAtivo(usuarioAtualizado.getAtivo());
+        }
         
+        registrarChaves(usuarioExistente);
         return usuarioRepository.save(usuarioExistente);
     }
     
@@ -92,23 +125,25 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
     
     @Override
-    @Transactional
     public void desativarUsuario(Long id) {
-        Usuario usuario = usuarioRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
-        
-        usuario.setAtivo(false);
-        usuarioRepository.save(usuario);
+        retentativaOtimista.executarSemRetorno("desativarUsuario", () -> {
+            Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + id));
+            
+            usuario.setAtivo(false);
+            usuarioRepository.save(usuario);
+        });
     }
     
     @Override
-    @Transactional
     public void reativarUsuario(Long id) {
-        Usuario usuario = usuarioRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
-        
-        usuario.setAtivo(true);
-        usuarioRepository.save(usuario);
+        retentativaOtimista.executarSemRetorno("reativarUsuario", () -> {
+            Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + id));
+            
+            usuario.setAtivo(true);
+            usuarioRepository.save(usuario);
+        });
     }
     
     // ============ CONSULTAS POR ATRIBUTOS ============
@@ -120,29 +155,44 @@ public class UsuarioServiceImpl implements UsuarioService {
     
     @Override
     public List<Usuario> buscarPorCargo(String cargo) {
-        // Implementação simples
-        return usuarioRepository.findAll().stream()
-            .filter(u -> u.getCargo() != null && u.getCargo().equalsIgnoreCase(cargo))
-            .collect(Collectors.toList());
+        return usuarioRepository.buscarPorCargo(cargo);
+    }
+    
+    @Override
+    public PaginaCursor<Usuario> buscarPorCargoPaginado(String cargo, Long cursor, Integer tamanho) {
+        int limite = Paginacao.normalizarTamanho(tamanho);
+        List<Usuario> usuarios = usuarioRepository.buscarPorCargoAposCursor(
+            cargo, cursor == null ? 0L : cursor, PageRequest.of(0, limite + 1));
+        return Paginacao.montarPagina(usuarios, limite, Usuario::getId);
     }
     
     // ============ BUSCA AVANÇADA ============
     
     @Override
-    public List<Usuario> buscarPorTermo(String termo) {
+    public List<Usuario> buscarPorTermo(String termo, Integer tamanho) {
+        return buscarPorTermoPaginado(termo, 0, tamanho).itens();
+    }
+    
+    // Slice busca um item a mais para saber se existe próxima página, sem COUNT
+    @Override
+    public PaginaResultado<Usuario> buscarPorTermoPaginado(String termo, Integer pagina, Integer tamanho) {
+        PageRequest pageRequest = PageRequest.of(pagina == null || pagina < 0 ? 0 : pagina,
+            Paginacao.normalizarTamanho(tamanho));
+        
+        Slice<Usuario> resultado;
         if (termo == null || termo.trim().isEmpty()) {
-            return listarAtivos();
+            resultado = usuarioRepository.findByAtivoTrueOrderByNomeAscIdAsc(pageRequest);
+        } else {
+            String termoNormalizado = termo.trim().toLowerCase(Locale.ROOT);
+            String prefixo = PadraoLike.prefixo(termoNormalizado);
+            String padrao = PadraoLike.contendo(termoNormalizado);
+            resultado = buscaTrigramHabilitada
+                ? usuarioRepository.buscarPorTermoRanqueado(termoNormalizado, prefixo, padrao, pageRequest)
+                : usuarioRepository.buscarPorTermoGeral(prefixo, padrao, pageRequest);
         }
         
-        String termoBusca = termo.trim().toLowerCase();
-        return usuarioRepository.findAll().stream()
-            .filter(u -> u.getAtivo())
-            .filter(u -> 
-                (u.getNome() != null && u.getNome().toLowerCase().contains(termoBusca)) ||
-                (u.getEmail() != null && u.getEmail().toLowerCase().contains(termoBusca)) ||
-                (u.getMatricula() != null && u.getMatricula().toLowerCase().contains(termoBusca))
-            )
-            .collect(Collectors.toList());
+        return new PaginaResultado<>(resultado.getContent(), resultado.getNumber(),
+            resultado.getNumberOfElements(), resultado.hasNext());
     }
     
     // ============ VALIDAÇÕES ============
@@ -150,40 +200,48 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Override
     public void validarUsuario(Usuario usuario) {
         if (usuario.getNome() == null || usuario.getNome().trim().isEmpty()) {
-            throw new IllegalArgumentException("Nome do usuário é obrigatório");
+            throw new DadosInvalidosException("Nome do usuário é obrigatório");
         }
         
         if (usuario.getEmail() == null || usuario.getEmail().trim().isEmpty()) {
-            throw new IllegalArgumentException("Email do usuário é obrigatório");
+            throw new DadosInvalidosException("Email do usuário é obrigatório");
         }
         
         // Validar formato de email básico
         if (!usuario.getEmail().contains("@")) {
-            throw new IllegalArgumentException("Email inválido");
+            throw new DadosInvalidosException("Email inválido");
         }
         
         // Validar duplicidade (apenas para novos usuários)
         if (usuario.getId() == null) {
-            if (usuarioRepository.existsByEmail(usuario.getEmail())) {
-                throw new IllegalArgumentException("Email já existe: " + usuario.getEmail());
+            if (existeEmail(usuario.getEmail())) {
+                throw new ConflitoException("Email já existe: " + usuario.getEmail());
             }
             
             if (usuario.getMatricula() != null && 
                 !usuario.getMatricula().isEmpty() &&
-                usuarioRepository.existsByMatricula(usuario.getMatricula())) {
-                throw new IllegalArgumentException("Matrícula já existe: " + usuario.getMatricula());
+                existeMatricula(usuario.getMatricula())) {
+                throw new ConflitoException("Matrícula já existe: " + usuario.getMatricula());
             }
         }
     }
     
     @Override
     public boolean existeEmail(String email) {
-        return usuarioRepository.existsByEmail(email);
+        // Negativo do filtro de Bloom é definitivo: só um possível positivo consulta o banco
+        return filtrosExistencia.podeExistir(Chave.EMAIL, email) && usuarioRepository.existsByEmail(email);
     }
     
     @Override
     public boolean existeMatricula(String matricula) {
-        return usuarioRepository.existsByMatricula(matricula);
+        return filtrosExistencia.podeExistir(Chave.MATRICULA, matricula) &&
+               usuarioRepository.existsByMatricula(matricula);
+    }
+    
+    // Antes de gravar: o filtro de Bloom precisa conhecer o valor antes de ele existir no banco
+    private void registrarChaves(Usuario usuario) {
+        filtrosExistencia.registrar(Chave.EMAIL, usuario.getEmail());
+        filtrosExistencia.registrar(Chave.MATRICULA, usuario.getMatricula());
     }
     
     // ============ RELATÓRIOS E ESTATÍSTICAS ============
@@ -210,18 +268,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
     
     @Override
-    public Map<String, Integer> obterContagemTotalUsuarios() {
-        List<Usuario> todosUsuarios = listarTodos();
-        
-        int totalUsuarios = todosUsuarios.size();
-        int totalAtivos = (int) todosUsuarios.stream().filter(Usuario::getAtivo).count();
-        int totalInativos = totalUsuarios - totalAtivos;
-        
-        Map<String, Integer> contagem = new HashMap<>();
-        contagem.put("totalUsuarios", totalUsuarios);
-        contagem.put("totalAtivos", totalAtivos);
-        contagem.put("totalInativos", totalInativos);
-        
-        return contagem;
+    public TotaisUsuarios obterContagemTotalUsuarios() {
+        return usuarioRepository.calcularTotaisUsuarios();
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+-- Executado após o ddl-auto do Hibernate (spring.jpa.defer-datasource-initialization=true).
+-- Todos os comandos são idempotentes: o script roda a cada inicialização.
+
+-- Sequência dos ids de produtos com incremento 50 (allocationSize do gerador pooled)
+CREATE SEQUENCE IF NOT EXISTS produtos_seq INCREMENT BY 50;
+
+-- Mantém a sequência à frente dos ids já gravados (inclusive os da antiga coluna IDENTITY)
+SELECT setval('produtos_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM produtos) + 50, (SELECT last_value FROM produtos_seq)));
+
+-- Número de série único quando informado (vários produtos podem não ter): garantia final
+-- por trás dos filtros de Bloom, que não enxergam gravações feitas fora dos serviços
+CREATE UNIQUE INDEX IF NOT EXISTS uk_produtos_numero_serie ON produtos (numero_serie) WHERE numero_serie IS NOT NULL;
+
+-- Busca por trecho (LIKE '%termo%') em produtos: índices trigram GiST, que além do LIKE
+-- entregam as linhas em ordem de distância (<->) e deixam buscarIdsPorTrigrama parar nas
+-- primeiras; substituem os GIN anteriores, que só atendem o filtro
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP INDEX IF EXISTS idx_produtos_nome_trgm;
+DROP INDEX IF EXISTS idx_produtos_codigo_trgm;
+DROP INDEX IF EXISTS idx_produtos_numero_serie_trgm;
+CREATE INDEX IF NOT EXISTS idx_produtos_nome_trgm_gist ON produtos USING gist (lower(nome) gist_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_produtos_codigo_trgm_gist ON produtos USING gist (lower(codigo) gist_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_produtos_numero_serie_trgm_gist ON produtos USING gist (lower(numero_serie) gist_trgm_ops);
+
+-- Buscas por modelo e cargo sem diferenciar maiúsculas; o id no índice atende a paginação por cursor
+CREATE INDEX IF NOT EXISTS idx_produtos_modelo_lower ON produtos (lower(modelo), id);
+CREATE INDEX IF NOT EXISTS idx_usuarios_cargo_lower ON usuarios (lower(cargo), id);
+
+-- Busca de usuários: prefixo em email/matrícula (text_pattern_ops atende LIKE 'termo%'
+-- em qualquer collation) e trecho no nome com trigramas
+CREATE INDEX IF NOT EXISTS idx_usuarios_email_prefixo ON usuarios (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_usuarios_matricula_prefixo ON usuarios (lower(matricula) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_usuarios_nome_trgm ON usuarios USING gin (lower(nome) gin_trgm_ops);
+
+-- Filtros de produtos ativos por associação: igualdade na FK + ativo, já ordenados por id
+CREATE INDEX IF NOT EXISTS idx_produtos_categoria_ativo ON produtos (categoria_id, ativo, id);
+CREATE INDEX IF NOT EXISTS idx_produtos_marca_ativo ON produtos (marca_id, ativo, id);
+CREATE INDEX IF NOT EXISTS idx_produtos_localizacao_ativo ON produtos (localizacao_id, ativo, id);
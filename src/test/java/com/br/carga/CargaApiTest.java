@@ -0,0 +1,249 @@
+package com.br.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.AprendizadoBackend2Application;
+import com.br.gerador.GeradorInventario;
+import com.br.gerador.ParametrosGeracao;
+
+// Carga HTTP em circuito fechado: cada cliente envia uma requisição, espera a resposta e envia
+// a próxima, misturando navegação, busca, rajadas de empréstimo/devolução e o painel.
+// A aplicação sobe numa porta aleatória sobre um H2 em arquivo no modo PostgreSQL, preenchido
+// pelo GeradorInventario num primeiro contexto (como no AmbienteBenchmark). Parâmetros por -D:
+// carga.clientes, carga.aquecimento-s, carga.duracao-s, carga.produtos, carga.usuarios,
+// carga.orcamento.p99-ms e carga.orcamento.p999-ms (o teste falha acima deles).
+// Fora do build padrão: ./mvnw -Pcarga test
+@Tag("carga")
+class CargaApiTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CargaApiTest.class);
+
+	private static final int CLIENTES = Integer.getInteger("carga.clientes", 32);
+	private static final int AQUECIMENTO_S = Integer.getInteger("carga.aquecimento-s", 10);
+	private static final int DURACAO_S = Integer.getInteger("carga.duracao-s", 30);
+	private static final int PRODUTOS = Integer.getInteger("carga.produtos", 50_000);
+	private static final int USUARIOS = Integer.getInteger("carga.usuarios", 10_000);
+	private static final long ORCAMENTO_P99_MS = Long.getLong("carga.orcamento.p99-ms", 250);
+	private static final long ORCAMENTO_P999_MS = Long.getLong("carga.orcamento.p999-ms", 1_000);
+
+	private static final String[] TERMOS_PRODUTO = { "notebook", "dell", "thinkpad", "monitor", "latitude 5",
+			"logitech", "PAT-" };
+	private static final String[] TERMOS_USUARIO = { "silva", "ana", "santos", "rafael", "oliveira" };
+
+	private static Path diretorio;
+	private static ConfigurableApplicationContext contexto;
+	private static String base;
+	private static List<Long> idsProdutos;
+	private static List<Long> idsEmprestaveis;
+	private static List<String> codigos;
+	private static List<Long> idsUsuarios;
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+	@BeforeAll
+	static void iniciar() throws IOException {
+		diretorio = Files.createTempDirectory("carga-inventario");
+		String url = "jdbc:h2:file:" + diretorio.resolve("banco").toAbsolutePath()
+				+ ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+		try (ConfigurableApplicationContext carga = iniciarContexto(url, "create", WebApplicationType.NONE)) {
+			new GeradorInventario(carga.getBean(JdbcTemplate.class)).gerar(new ParametrosGeracao(
+					PRODUTOS, USUARIOS, 40, 500, 50, PRODUTOS / 2, 4, 42L, "carga"));
+		}
+
+		// Segundo contexto: os carregamentos da inicialização já encontram os dados
+		contexto = iniciarContexto(url, "none", WebApplicationType.SERVLET);
+		base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+		JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+		idsProdutos = jdbc.queryForList("SELECT id FROM produtos WHERE ativo ORDER BY id", Long.class);
+		idsEmprestaveis = jdbc.queryForList(
+				"SELECT id FROM produtos WHERE ativo AND quantidade_disponivel > 0 ORDER BY id", Long.class);
+		codigos = jdbc.queryForList("SELECT codigo FROM produtos ORDER BY id LIMIT 10000", String.class);
+		idsUsuarios = jdbc.queryForList("SELECT id FROM usuarios ORDER BY id", Long.class);
+	}
+
+	@AfterAll
+	static void encerrar() throws IOException {
+		if (contexto != null) {
+			contexto.close();
+		}
+		try (Stream<Path> arquivos = Files.walk(diretorio)) {
+			for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(arquivo);
+			}
+		}
+	}
+
+	@Test
+	void latenciasDentroDoOrcamento() throws Exception {
+		rodar(AQUECIMENTO_S, new EstatisticasLatencia());
+		EstatisticasLatencia estatisticas = new EstatisticasLatencia();
+		rodar(DURACAO_S, estatisticas);
+
+		log.info("Carga: {} clientes, {} s, {} produtos, {} usuários{}", CLIENTES, DURACAO_S, PRODUTOS, USUARIOS,
+				estatisticas.relatorio(DURACAO_S));
+		assertEquals(0, estatisticas.falhas(), "Respostas 5xx ou erros de conexão");
+		List<String> acima = estatisticas.acimaDoOrcamento(ORCAMENTO_P99_MS, ORCAMENTO_P999_MS);
+		assertTrue(acima.isEmpty(), "Orçamento de latência (p99 " + ORCAMENTO_P99_MS + " ms, p999 "
+				+ ORCAMENTO_P999_MS + " ms) excedido: " + acima);
+	}
+
+	// ============ CLIENTES ============
+
+	private void rodar(int segundos, EstatisticasLatencia estatisticas) throws Exception {
+		long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+		ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+		try {
+			List<Future<?>> futuros = new ArrayList<>();
+			for (int i = 0; i < CLIENTES; i++) {
+				futuros.add(clientes.submit(() -> cliente(fim, estatisticas)));
+			}
+			for (Future<?> futuro : futuros) {
+				futuro.get();
+			}
+		} finally {
+			clientes.shutdownNow();
+		}
+	}
+
+	// Mistura: 40% navegação, 30% busca, 15% empréstimo/devolução, 15% painel
+	private void cliente(long fim, EstatisticasLatencia estatisticas) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (System.nanoTime() < fim && !Thread.currentThread().isInterrupted()) {
+			int sorteio = random.nextInt(100);
+			if (sorteio < 40) {
+				navegar(random, estatisticas);
+			} else if (sorteio < 70) {
+				buscar(random, estatisticas);
+			} else if (sorteio < 85) {
+				emprestarEDevolver(random, estatisticas);
+			} else {
+				consultarPainel(estatisticas);
+			}
+		}
+	}
+
+	private void navegar(ThreadLocalRandom random, EstatisticasLatencia estatisticas) {
+		chamar(estatisticas, "GET /api/produtos", "GET",
+				"/api/produtos?tamanho=20&cursor=" + sortear(idsProdutos, random));
+		for (int i = 0; i < 3; i++) {
+			chamar(estatisticas, "GET /api/produtos/{id}", "GET", "/api/produtos/" + sortear(idsProdutos, random));
+		}
+		chamar(estatisticas, "GET /api/categorias", "GET", "/api/categorias");
+		chamar(estatisticas, "GET /api/marcas/ativas", "GET", "/api/marcas/ativas");
+		chamar(estatisticas, "GET /api/localizacoes/ativas", "GET", "/api/localizacoes/ativas");
+		chamar(estatisticas, "GET /api/usuarios/{id}", "GET", "/api/usuarios/" + sortear(idsUsuarios, random));
+	}
+
+	private void buscar(ThreadLocalRandom random, EstatisticasLatencia estatisticas) {
+		chamar(estatisticas, "GET /api/produtos/buscar", "GET",
+				"/api/produtos/buscar?limite=20&termo=" + termo(TERMOS_PRODUTO, random));
+		chamar(estatisticas, "GET /api/produtos/codigo/{codigo}", "GET",
+				"/api/produtos/codigo/" + sortear(codigos, random));
+		chamar(estatisticas, "GET /api/usuarios/buscar", "GET",
+				"/api/usuarios/buscar?tamanho=20&termo=" + termo(TERMOS_USUARIO, random));
+	}
+
+	// Rajada no mesmo produto, escolhido com viés para os primeiros (concorrência nos populares);
+	// empréstimos recusados por falta de saldo contam como 4xx, não como falha
+	private void emprestarEDevolver(ThreadLocalRandom random, EstatisticasLatencia estatisticas) {
+		int limite = random.nextInt(10) < 8 ? Math.max(1, idsEmprestaveis.size() / 100) : idsEmprestaveis.size();
+		long id = idsEmprestaveis.get(random.nextInt(limite));
+		for (int i = 0; i < 5; i++) {
+			int status = chamar(estatisticas, "POST /api/produtos/{id}/emprestimo", "POST",
+					"/api/produtos/" + id + "/emprestimo?quantidade=1");
+			if (status >= 200 && status < 300) {
+				chamar(estatisticas, "POST /api/produtos/{id}/devolucao", "POST",
+						"/api/produtos/" + id + "/devolucao?quantidade=1");
+			}
+		}
+	}
+
+	private void consultarPainel(EstatisticasLatencia estatisticas) {
+		chamar(estatisticas, "GET /api/produtos/contagem-itens", "GET", "/api/produtos/contagem-itens");
+		chamar(estatisticas, "GET /api/produtos/estatisticas/categoria", "GET", "/api/produtos/estatisticas/categoria");
+		chamar(estatisticas, "GET /api/usuarios/relatorios/contagem", "GET", "/api/usuarios/relatorios/contagem");
+	}
+
+	// ============ MÉTODOS AUXILIARES ============
+
+	private int chamar(EstatisticasLatencia estatisticas, String endpoint, String metodo, String caminho) {
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+				.method(metodo, HttpRequest.BodyPublishers.noBody())
+				.timeout(Duration.ofSeconds(30))
+				.build();
+		long inicio = System.nanoTime();
+		int status;
+		try {
+			status = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+		} catch (IOException e) {
+			status = -1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		}
+		estatisticas.registrar(endpoint, System.nanoTime() - inicio, status);
+		return status;
+	}
+
+	private static <T> T sortear(List<T> valores, ThreadLocalRandom random) {
+		return valores.get(random.nextInt(valores.size()));
+	}
+
+	private static String termo(String[] termos, ThreadLocalRandom random) {
+		return termos[random.nextInt(termos.length)].replace(" ", "%20");
+	}
+
+	private static ConfigurableApplicationContext iniciarContexto(String url, String ddlAuto,
+			WebApplicationType tipo) {
+		// Argumentos de linha de comando: precedem o application.properties (banco PostgreSQL)
+		return new SpringApplicationBuilder(AprendizadoBackend2Application.class)
+				.web(tipo)
+				.run("--server.port=0",
+						"--spring.datasource.url=" + url,
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.datasource.hikari.maximum-pool-size=" + Math.max(10, CLIENTES / 2),
+						"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+						"--spring.jpa.show-sql=false",
+						"--spring.sql.init.mode=never",
+						"--inventario.busca.trigram.habilitado=false",
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=WARN",
+						// Relatório da carga
+						"--logging.level.com.br.carga=INFO");
+	}
+}
@@ -0,0 +1,94 @@
+package com.br.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Latências por endpoint (rótulo "MÉTODO /rota/{variavel}") de uma rodada de carga.
+// Guarda todas as amostras: os percentis são exatos, sem histograma aproximado.
+class EstatisticasLatencia {
+
+	private final Map<String, Amostras> porEndpoint = new ConcurrentHashMap<>();
+
+	void registrar(String endpoint, long nanos, int status) {
+		porEndpoint.computeIfAbsent(endpoint, chave -> new Amostras()).adicionar(nanos, status);
+	}
+
+	// Erros do servidor ou de conexão; respostas 4xx (estoque insuficiente etc.) são recusas esperadas
+	long falhas() {
+		return porEndpoint.values().stream().mapToLong(amostras -> amostras.falhas).sum();
+	}
+
+	List<String> acimaDoOrcamento(long p99Ms, long p999Ms) {
+		List<String> acima = new ArrayList<>();
+		resumos().forEach((endpoint, resumo) -> {
+			if (resumo.percentilMs(0.99) > p99Ms || resumo.percentilMs(0.999) > p999Ms) {
+				acima.add(String.format("%s (p99 %.1f ms, p999 %.1f ms)", endpoint,
+						resumo.percentilMs(0.99), resumo.percentilMs(0.999)));
+			}
+		});
+		return acima;
+	}
+
+	String relatorio(double segundos) {
+		StringBuilder texto = new StringBuilder(String.format("%n%-48s %8s %9s %8s %8s %8s %8s %6s %6s%n",
+				"Endpoint", "Req", "Req/s", "p50 ms", "p99 ms", "p999 ms", "Máx ms", "4xx", "Falhas"));
+		long total = 0;
+		for (Map.Entry<String, Resumo> entrada : resumos().entrySet()) {
+			Resumo resumo = entrada.getValue();
+			total += resumo.latencias.length;
+			texto.append(String.format("%-48s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %6d %6d%n", entrada.getKey(),
+					resumo.latencias.length, resumo.latencias.length / segundos, resumo.percentilMs(0.5),
+					resumo.percentilMs(0.99), resumo.percentilMs(0.999), resumo.percentilMs(1.0),
+					resumo.recusas, resumo.falhas));
+		}
+		return texto.append(String.format("Total: %d requisições, %.1f req/s%n", total, total / segundos)).toString();
+	}
+
+	private Map<String, Resumo> resumos() {
+		Map<String, Resumo> resumos = new TreeMap<>();
+		porEndpoint.forEach((endpoint, amostras) -> resumos.put(endpoint, amostras.resumo()));
+		return resumos;
+	}
+
+	private static final class Amostras {
+
+		private long[] latencias = new long[1_024];
+		private int tamanho;
+		private long recusas;
+		private long falhas;
+
+		synchronized void adicionar(long nanos, int status) {
+			if (tamanho == latencias.length) {
+				latencias = Arrays.copyOf(latencias, tamanho * 2);
+			}
+			latencias[tamanho++] = nanos;
+			if (status < 0 || status >= 500) {
+				falhas++;
+			} else if (status >= 400) {
+				recusas++;
+			}
+		}
+
+		synchronized Resumo resumo() {
+			long[] ordenadas = Arrays.copyOf(latencias, tamanho);
+			Arrays.sort(ordenadas);
+			return new Resumo(ordenadas, recusas, falhas);
+		}
+	}
+
+	private record Resumo(long[] latencias, long recusas, long falhas) {
+
+		// Percentil pelo posto mais próximo
+		double percentilMs(double percentil) {
+			if (latencias.length == 0) {
+				return 0;
+			}
+			int posto = (int) Math.ceil(percentil * latencias.length);
+			return latencias[Math.max(0, posto - 1)] / 1_000_000.0;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.br.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ContadorSqlRequisicaoTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ContadorSqlRequisicao contador = new ContadorSqlRequisicao(meterRegistry, 50);
+
+	@Test
+	void contaOsComandosDeCadaRequisicaoSeparadamente() throws Exception {
+		executar("/api/produtos", "/api/produtos", 3);
+		executar("/api/produtos/7", "/api/produtos/{id}", 1);
+		executar("/api/produtos/8", "/api/produtos/{id}", 2);
+
+		DistributionSummary listagem = resumo("/api/produtos");
+		assertEquals(1, listagem.count());
+		assertEquals(3, listagem.totalAmount());
+		// A contagem recomeça a cada requisição: 1 e 2, não 1 e 3
+		DistributionSummary detalhe = resumo("/api/produtos/{id}");
+		assertEquals(2, detalhe.count());
+		assertEquals(3, detalhe.totalAmount());
+		assertEquals(2, detalhe.max());
+	}
+
+	@Test
+	void comandosForaDeRequisicaoNaoSaoContados() throws Exception {
+		// Ex.: tarefas agendadas e a inicialização; e a thread não fica com contagem residual
+		contador.inspect("SELECT 1");
+		executar("/api/produtos", "/api/produtos", 0);
+		contador.inspect("SELECT 1");
+
+		assertEquals(0, resumo("/api/produtos").totalAmount());
+	}
+
+	@Test
+	void ignoraRequisicoesForaDaApi() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+		contador.doFilter(request, new MockHttpServletResponse(), (req, res) -> contador.inspect("SELECT 1"));
+
+		assertNull(meterRegistry.find("inventario.sql.por-requisicao").summary());
+	}
+
+	private void executar(String uri, String padrao, int comandos) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		contador.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, padrao);
+			for (int i = 0; i < comandos; i++) {
+				contador.inspect("SELECT " + i);
+			}
+		});
+	}
+
+	private DistributionSummary resumo(String uri) {
+		return meterRegistry.get("inventario.sql.por-requisicao").tags("metodo", "GET", "uri", uri).summary();
+	}
+}
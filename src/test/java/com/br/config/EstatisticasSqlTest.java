@@ -0,0 +1,56 @@
+package com.br.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.br.dto.ConsultaSql;
+
+class EstatisticasSqlTest {
+
+	private final EstatisticasSql estatisticas = new EstatisticasSql();
+
+	@Test
+	void rankingOrdenaPeloTempoTotal() {
+		estatisticas.registrar("SELECT 1", 5_000_000);
+		estatisticas.registrar("SELECT 2", 2_000_000);
+		estatisticas.registrar("SELECT 2", 4_000_000);
+
+		List<ConsultaSql> ranking = estatisticas.ranking(10);
+
+		assertEquals(new ConsultaSql("SELECT 2", 2, 6.0, 3.0, 4.0), ranking.get(0));
+		assertEquals(new ConsultaSql("SELECT 1", 1, 5.0, 5.0, 5.0), ranking.get(1));
+		assertEquals(1, estatisticas.ranking(1).size());
+	}
+
+	@Test
+	void comandosAlemDoLimiteSomamNumaUnicaEntrada() {
+		for (int i = 0; i < 1_005; i++) {
+			estatisticas.registrar("SELECT " + i, 1_000_000);
+		}
+		// Comando já conhecido continua na própria entrada mesmo com o mapa cheio
+		estatisticas.registrar("SELECT 0", 1_000_000);
+
+		List<ConsultaSql> ranking = estatisticas.ranking(2_000);
+
+		assertEquals(1_001, ranking.size());
+		assertEquals(5, execucoes(ranking, "(demais comandos)"));
+		assertEquals(2, execucoes(ranking, "SELECT 0"));
+		assertEquals(0, ranking.stream().filter(consulta -> consulta.sql().equals("SELECT 1000")).count());
+	}
+
+	@Test
+	void limparZeraAsEstatisticas() {
+		estatisticas.registrar("SELECT 1", 1_000_000);
+
+		estatisticas.limpar();
+
+		assertEquals(List.of(), estatisticas.ranking(10));
+	}
+
+	private static long execucoes(List<ConsultaSql> ranking, String sql) {
+		return ranking.stream().filter(consulta -> consulta.sql().equals(sql)).findFirst().orElseThrow().execucoes();
+	}
+}
@@ -0,0 +1,82 @@
+package com.br.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+class LimiteConcorrenciaTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// Uma requisição por vez e nenhuma espera pela permissão
+	private final LimiteConcorrencia limite = new LimiteConcorrencia(meterRegistry, true, 10, 1, 2, 0);
+
+	@Test
+	void requisicaoAlemDoLimiteRecebe503ComRetryAfter() throws Exception {
+		MockHttpServletRequest emAndamento = requisicao("/api/produtos/exportacao");
+		executar(emAndamento, (req, res) -> req.startAsync());
+
+		MockHttpServletResponse rejeitada = executar(requisicao("/api/produtos"), new MockFilterChain());
+
+		assertEquals(503, rejeitada.getStatus());
+		assertEquals("1", rejeitada.getHeader("Retry-After"));
+		assertEquals("{\"erro\":\"Servidor ocupado, tente novamente\"}", rejeitada.getContentAsString());
+		assertEquals(1, meterRegistry.counter("inventario.concorrencia.rejeitadas").count());
+		assertEquals(1, meterRegistry.get("inventario.concorrencia.em-andamento").gauge().value());
+	}
+
+	@Test
+	void respostaAssincronaSeguraAPermissaoAteTerminar() throws Exception {
+		MockHttpServletRequest exportacao = requisicao("/api/produtos/exportacao");
+		executar(exportacao, (req, res) -> req.startAsync());
+		assertEquals(503, executar(requisicao("/api/produtos"), new MockFilterChain()).getStatus());
+
+		exportacao.getAsyncContext().complete();
+
+		assertEquals(200, executar(requisicao("/api/produtos"), new MockFilterChain()).getStatus());
+		assertEquals(0, meterRegistry.get("inventario.concorrencia.em-andamento").gauge().value());
+	}
+
+	@Test
+	void permissaoEhDevolvidaQuandoACadeiaFalha() throws Exception {
+		assertThrows(ServletException.class, () -> executar(requisicao("/api/produtos"), (req, res) -> {
+			throw new ServletException("falha no controller");
+		}));
+
+		assertEquals(200, executar(requisicao("/api/produtos"), new MockFilterChain()).getStatus());
+		assertEquals(0, meterRegistry.counter("inventario.concorrencia.rejeitadas").count());
+	}
+
+	@Test
+	void rotasForaDaApiNaoConsomemPermissao() throws Exception {
+		MockHttpServletRequest exportacao = requisicao("/api/produtos/exportacao");
+		executar(exportacao, (req, res) -> req.startAsync());
+
+		MockFilterChain cadeia = new MockFilterChain();
+		executar(requisicao("/actuator/health"), cadeia);
+
+		// A cadeia foi executada mesmo com a única permissão ocupada
+		assertNotNull(cadeia.getRequest());
+	}
+
+	private static MockHttpServletRequest requisicao(String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setAsyncSupported(true);
+		return request;
+	}
+
+	private MockHttpServletResponse executar(MockHttpServletRequest request, FilterChain cadeia) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		limite.doFilter(request, response, cadeia);
+		return response;
+	}
+}
@@ -0,0 +1,108 @@
+package com.br.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import com.br.dto.ConsultaSql;
+import com.zaxxer.hikari.HikariDataSource;
+
+@ExtendWith(OutputCaptureExtension.class)
+class MonitorSqlTest {
+
+	private static final String CONSULTA = "SELECT nome FROM itens WHERE id = ?";
+	private static final String INSERCAO = "INSERT INTO itens (id, nome) VALUES (?, ?)";
+
+	private final EstatisticasSql estatisticas = new EstatisticasSql();
+
+	private HikariDataSource pool;
+
+	private DataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:monitor-sql;DB_CLOSE_DELAY=-1");
+		try (Connection conexao = pool.getConnection(); Statement statement = conexao.createStatement()) {
+			statement.execute("CREATE TABLE itens (id BIGINT PRIMARY KEY, nome VARCHAR(50))");
+		}
+		// lento-ms = 0: todo comando vai para o log com os parâmetros
+		MonitorSql monitor = new MonitorSql(new StaticListableBeanFactory(Map.of("estatisticasSql", estatisticas))
+				.getBeanProvider(EstatisticasSql.class), true, 0, 0);
+		dataSource = (DataSource) monitor.postProcessAfterInitialization(pool, "dataSource");
+	}
+
+	@AfterEach
+	void encerrar() throws Exception {
+		try (Connection conexao = pool.getConnection(); Statement statement = conexao.createStatement()) {
+			statement.execute("DROP TABLE itens");
+		}
+		pool.close();
+	}
+
+	@Test
+	void loteEConsultaSaoMedidosComOsParametros(CapturedOutput saida) throws Exception {
+		try (Connection conexao = dataSource.getConnection()) {
+			try (PreparedStatement insercao = conexao.prepareStatement(INSERCAO)) {
+				insercao.setLong(1, 41);
+				insercao.setString(2, "Mouse");
+				insercao.addBatch();
+				insercao.setLong(1, 42);
+				insercao.setString(2, "Teclado");
+				insercao.addBatch();
+				assertArrayEquals(new int[] { 1, 1 }, insercao.executeBatch());
+			}
+			try (PreparedStatement consulta = conexao.prepareStatement(CONSULTA)) {
+				consulta.setLong(1, 42);
+				try (ResultSet resultado = consulta.executeQuery()) {
+					assertTrue(resultado.next());
+					assertEquals("Teclado", resultado.getString(1));
+				}
+			}
+		}
+
+		List<ConsultaSql> ranking = estatisticas.ranking(10);
+		assertEquals(2, ranking.size());
+		assertEquals(1, execucoes(ranking, INSERCAO));
+		assertEquals(1, execucoes(ranking, CONSULTA));
+		assertTrue(saida.getOut().contains("lote=2 parametros=[1=42, 2='Teclado'] sql=\"" + INSERCAO + "\""),
+				saida.getOut());
+		assertTrue(saida.getOut().contains("lote=0 parametros=[1=42] sql=\"" + CONSULTA + "\""), saida.getOut());
+	}
+
+	@Test
+	void unwrapChegaAoPoolDoHikari() throws Exception {
+		assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+		assertSame(pool, dataSource.unwrap(HikariDataSource.class));
+	}
+
+	@Test
+	void desabilitadoMantemODataSourceOriginal() {
+		MonitorSql monitor = new MonitorSql(new StaticListableBeanFactory().getBeanProvider(EstatisticasSql.class),
+				false, 0, 0);
+
+		assertSame(pool, monitor.postProcessAfterInitialization(pool, "dataSource"));
+	}
+
+	private static long execucoes(List<ConsultaSql> ranking, String sql) {
+		return ranking.stream().filter(consulta -> consulta.sql().equals(sql)).findFirst().orElseThrow().execucoes();
+	}
+}
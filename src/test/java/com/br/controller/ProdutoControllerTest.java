@@ -0,0 +1,133 @@
+package com.br.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.br.exception.RecursoNaoEncontradoException;
+import com.br.exception.RegraNegocioException;
+import com.br.model.Categoria;
+import com.br.model.Produto;
+import com.br.service.CategoriaService;
+import com.br.service.ImportacaoProdutoService;
+import com.br.service.LocalizacaoService;
+import com.br.service.MarcaService;
+import com.br.service.ProdutoService;
+
+@WebMvcTest(ProdutoController.class)
+@Import(SimpleMeterRegistry.class)
+class ProdutoControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private ProdutoService produtoService;
+
+	@MockitoBean
+	private CategoriaService categoriaService;
+
+	@MockitoBean
+	private MarcaService marcaService;
+
+	@MockitoBean
+	private LocalizacaoService localizacaoService;
+
+	@MockitoBean
+	private ImportacaoProdutoService importacaoProdutoService;
+
+	@Test
+	void criacaoValidaUmaUnicaVezPeloServico() throws Exception {
+		when(categoriaService.findById(1L)).thenReturn(Optional.of(new Categoria("Notebook", true)));
+		when(produtoService.salvarProduto(any(Produto.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+		mockMvc.perform(post("/api/produtos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"nome": "Notebook Dell", "codigo": "PAT-0001", "categoriaId": 1,
+						 "quantidadeTotal": "3", "numeroSerie": ""}
+						"""))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.quantidadeDisponivel").value(3))
+				.andExpect(jsonPath("$.numeroSerie").doesNotExist());
+
+		verify(produtoService, times(1)).salvarProduto(any(Produto.class));
+		verify(produtoService, never()).validarProduto(any(Produto.class));
+	}
+
+	@Test
+	void criacaoSemCategoriaEhRejeitadaAntesDoServico() throws Exception {
+		mockMvc.perform(post("/api/produtos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"nome": "Notebook Dell", "codigo": "PAT-0001"}
+						"""))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.erro").value("categoriaId é obrigatório"));
+
+		verify(produtoService, never()).salvarProduto(any(Produto.class));
+	}
+
+	@Test
+	void emprestimoRecusadoViraRespostaDoTratadorDeErros() throws Exception {
+		when(produtoService.registrarEmprestimo(1L, 6))
+				.thenThrow(new RegraNegocioException("Disponibilidade insuficiente. Disponível: 5, Solicitado: 6"));
+
+		mockMvc.perform(post("/api/produtos/1/emprestimo").param("quantidade", "6"))
+				.andExpect(status().isUnprocessableContent())
+				.andExpect(jsonPath("$.erro").value("Disponibilidade insuficiente. Disponível: 5, Solicitado: 6"));
+	}
+
+	@Test
+	void numeroSerieDuplicadoQueEscapouDaValidacaoViraConflito() throws Exception {
+		// Falso negativo do filtro de Bloom: quem barra é o índice único do banco
+		when(categoriaService.findById(1L)).thenReturn(Optional.of(new Categoria("Notebook", true)));
+		when(produtoService.salvarProduto(any(Produto.class)))
+				.thenThrow(new DataIntegrityViolationException("uk_produtos_numero_serie"));
+
+		mockMvc.perform(post("/api/produtos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"nome": "Notebook Dell", "codigo": "PAT-0001", "categoriaId": 1, "numeroSerie": "SN-1"}
+						"""))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.erro").value("Valor já cadastrado ou registro em uso, recarregue e tente novamente"));
+	}
+
+	@Test
+	void produtoInexistenteNaConsultaDeDisponibilidadeEh404() throws Exception {
+		when(produtoService.verificarDisponibilidade(99L, 1))
+				.thenThrow(new RecursoNaoEncontradoException("Produto não encontrado com ID: 99"));
+
+		mockMvc.perform(get("/api/produtos/99/disponivel").param("quantidade", "1"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.erro").value("Produto não encontrado com ID: 99"));
+	}
+
+	@Test
+	void falhaNaContagemViraErroInternoEmVezDeTotaisZerados() throws Exception {
+		when(produtoService.obterContagemTotalItens()).thenThrow(new IllegalStateException("conexão recusada"));
+
+		mockMvc.perform(get("/api/produtos/contagem-itens"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.totalItens").doesNotExist());
+	}
+}
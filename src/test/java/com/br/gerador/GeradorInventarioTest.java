@@ -0,0 +1,59 @@
+package com.br.gerador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.sql.init.mode=never"
+})
+class GeradorInventarioTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void geraOsVolumesComDistribuicoesAssimetricas() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		// Uma thread: grava na transação do teste
+		new GeradorInventario(jdbc).gerar(new ParametrosGeracao(5_000, 1_000, 20, 100, 10, 2_000, 1, 42L, "t1"));
+
+		assertEquals(5_000, contar(jdbc, "SELECT COUNT(*) FROM produtos"));
+		assertEquals(1_000, contar(jdbc, "SELECT COUNT(*) FROM usuarios"));
+		assertEquals(20, contar(jdbc, "SELECT COUNT(*) FROM categorias"));
+		assertEquals(100, contar(jdbc, "SELECT COUNT(*) FROM marcas"));
+		assertEquals(10, contar(jdbc, "SELECT COUNT(*) FROM localizacoes"));
+
+		// Todo empréstimo sorteado aparece como unidade indisponível, sem saldo negativo
+		assertEquals(2_000, contar(jdbc, "SELECT SUM(quantidade_total - quantidade_disponivel) FROM produtos"));
+		assertEquals(0, contar(jdbc, "SELECT COUNT(*) FROM produtos WHERE quantidade_disponivel < 0"));
+
+		// Categoria mais popular (Notebook) concentra bem mais produtos que a mediana
+		List<Long> porCategoria = jdbc.queryForList(
+				"SELECT COUNT(*) FROM produtos GROUP BY categoria_id ORDER BY COUNT(*) DESC", Long.class);
+		assertEquals("Notebook", jdbc.queryForObject("""
+				SELECT c.nome FROM produtos p JOIN categorias c ON c.id = p.categoria_id
+				GROUP BY c.nome ORDER BY COUNT(*) DESC LIMIT 1""", String.class));
+		assertTrue(porCategoria.get(0) > 10 * porCategoria.get(porCategoria.size() / 2),
+				"Distribuição de categorias: " + porCategoria);
+
+		// Empréstimos concentrados: poucos produtos com empréstimo, alguns com muitas unidades
+		long comEmprestimo = contar(jdbc, "SELECT COUNT(*) FROM produtos WHERE quantidade_disponivel < quantidade_total");
+		assertTrue(comEmprestimo < 2_000, "Produtos com empréstimo: " + comEmprestimo);
+		assertTrue(contar(jdbc, "SELECT MAX(quantidade_total - quantidade_disponivel) FROM produtos") > 100);
+	}
+
+	private static long contar(JdbcTemplate jdbc, String sql) {
+		return jdbc.queryForObject(sql, Long.class);
+	}
+}
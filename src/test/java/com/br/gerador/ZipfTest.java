@@ -0,0 +1,36 @@
+package com.br.gerador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ZipfTest {
+
+	@Test
+	void postosSeguemALeiDePotencia() {
+		Zipf zipf = new Zipf(1_000, 1.0);
+		SplittableRandom random = new SplittableRandom(7);
+		int[] contagem = new int[1_001];
+		for (int i = 0; i < 200_000; i++) {
+			int posto = zipf.amostra(random);
+			assertTrue(posto >= 1 && posto <= 1_000, "Posto fora do intervalo: " + posto);
+			contagem[posto]++;
+		}
+
+		// P(k) ~ 1/k: o primeiro sai cerca do dobro do segundo e dez vezes o décimo
+		assertEquals(2.0, (double) contagem[1] / contagem[2], 0.15);
+		assertEquals(10.0, (double) contagem[1] / contagem[10], 1.5);
+	}
+
+	@Test
+	void umUnicoPostoSempreSai() {
+		Zipf zipf = new Zipf(1, 1.2);
+		SplittableRandom random = new SplittableRandom(7);
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(1, zipf.amostra(random));
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import com.br.model.Produto;
+
+class CacheProdutosTest {
+
+	private final CacheProdutos cache = new CacheProdutos(2, new SimpleMeterRegistry());
+
+	private final AtomicInteger leituras = new AtomicInteger();
+
+	@Test
+	void segundaLeituraPorCodigoOuNumeroSerieNaoConsultaOBanco() {
+		Produto produto = produto(1L, "PAT-0001", "SN-1");
+
+		assertSame(produto, cache.porCodigo("PAT-0001", carregador(produto)).orElseThrow());
+		assertSame(produto, cache.porCodigo("PAT-0001", carregador(produto)).orElseThrow());
+		assertSame(produto, cache.porNumeroSerie("SN-1", carregador(produto)).orElseThrow());
+		assertEquals(1, leituras.get());
+	}
+
+	@Test
+	void invalidacaoRemoveAsChavesComQueOProdutoFoiGuardado() {
+		Produto produto = produto(1L, "PAT-0001", "SN-1");
+		cache.porCodigo("PAT-0001", carregador(produto));
+
+		// O código mudou na edição: a chave antiga não pode continuar apontando para o produto
+		Produto alterado = produto(1L, "PAT-0099", "SN-1");
+		cache.invalidar(1L);
+
+		assertTrue(cache.porCodigo("PAT-0001", carregador(null)).isEmpty());
+		assertSame(alterado, cache.porCodigo("PAT-0099", carregador(alterado)).orElseThrow());
+		assertEquals(3, leituras.get());
+	}
+
+	@Test
+	void leituraConcorrenteComInvalidacaoNaoGuardaValorAntigo() {
+		Produto antigo = produto(1L, "PAT-0001", null);
+
+		cache.porCodigo("PAT-0001", () -> {
+			leituras.incrementAndGet();
+			// Uma escrita termina enquanto o produto é lido do banco
+			cache.invalidar(1L);
+			return Optional.of(antigo);
+		});
+
+		assertEquals(0, cache.tamanho());
+	}
+
+	@Test
+	void invalidacaoDeOutroProdutoDuranteALeituraNaoImpedeGuardar() {
+		Produto mouse = produto(1L, "PAT-0001", null);
+		Produto teclado = produto(2L, "PAT-0002", null);
+		cache.porCodigo("PAT-0001", carregador(mouse));
+
+		cache.porCodigo("PAT-0002", () -> {
+			leituras.incrementAndGet();
+			// Empréstimo do mouse confirmado enquanto o teclado é lido do banco
+			cache.invalidar(1L);
+			return Optional.of(teclado);
+		});
+
+		assertSame(teclado, cache.porCodigo("PAT-0002", carregador(null)).orElseThrow());
+		assertEquals(1, cache.tamanho());
+		assertEquals(2, leituras.get());
+	}
+
+	@Test
+	void limpezaDuranteALeituraDescartaQualquerProduto() {
+		Produto teclado = produto(2L, "PAT-0002", null);
+
+		cache.porCodigo("PAT-0002", () -> {
+			leituras.incrementAndGet();
+			// Categoria alterada: o detalhe lido pode trazer a associação antiga
+			cache.limpar();
+			return Optional.of(teclado);
+		});
+
+		assertEquals(0, cache.tamanho());
+	}
+
+	@Test
+	void descartaOMenosUsadoAcimaDaCapacidade() {
+		cache.porCodigo("PAT-0001", carregador(produto(1L, "PAT-0001", null)));
+		cache.porCodigo("PAT-0002", carregador(produto(2L, "PAT-0002", null)));
+		cache.porCodigo("PAT-0001", carregador(null));
+		cache.porCodigo("PAT-0003", carregador(produto(3L, "PAT-0003", null)));
+
+		assertEquals(2, cache.tamanho());
+		assertEquals(3, leituras.get());
+		cache.porCodigo("PAT-0001", carregador(null));
+		assertEquals(3, leituras.get());
+	}
+
+	private Supplier<Optional<Produto>> carregador(Produto produto) {
+		return () -> {
+			leituras.incrementAndGet();
+			return Optional.ofNullable(produto);
+		};
+	}
+
+	private Produto produto(Long id, String codigo, String numeroSerie) {
+		Produto produto = new Produto();
+		produto.setId(id);
+		produto.setCodigo(codigo);
+		produto.setNumeroSerie(numeroSerie);
+		return produto;
+	}
+}
@@ -0,0 +1,147 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.model.Categoria;
+import com.br.model.Produto;
+import com.br.repository.CategoriaRepository;
+import com.br.repository.ProdutoRepository;
+
+// Sem a transação do teste: as movimentações abrem transação própria e precisam ver os dados
+// confirmados, e as threads disputam o produto de verdade
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CoordenadorMovimentacao.class)
+class CoordenadorMovimentacaoTest {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private CoordenadorMovimentacao coordenador;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	private Categoria categoria;
+
+	@BeforeEach
+	void setUp() {
+		categoria = categoriaRepository.save(new Categoria("Notebook", true));
+	}
+
+	@AfterEach
+	void limpar() {
+		produtoRepository.deleteAll();
+		categoriaRepository.deleteAll();
+	}
+
+	@Test
+	void emprestimosEDevolucoesConcorrentesNaoPerdemAtualizacoes() throws Exception {
+		// 1000 unidades já emprestadas: qualquer ordem de chegada cabe no saldo e no total
+		Long id = persistirProduto("PAT-0001", 3_000, 2_000);
+		int porThread = 100;
+
+		List<Boolean> resultados = emParalelo(THREADS * porThread * 2, i -> i % 2 == 0
+				? coordenador.emprestar(id, 2)
+				: coordenador.devolver(id, 1));
+
+		// Cada par empresta 2 e devolve 1: sobra uma unidade emprestada por par
+		assertTrue(resultados.stream().allMatch(Boolean::booleanValue));
+		Produto produto = produtoRepository.findById(id).orElseThrow();
+		assertEquals(2_000 - THREADS * porThread, produto.getQuantidadeDisponivel());
+		// Pedidos agrupados saem no mesmo UPDATE: no máximo um incremento de versão por pedido
+		assertTrue(produto.getVersao() <= THREADS * porThread * 2, "Versão: " + produto.getVersao());
+		assertEquals(0, coordenador.filasPendentes());
+	}
+
+	@Test
+	void saldoDisputadoAtendeExatamenteODisponivel() throws Exception {
+		Long id = persistirProduto("PAT-0001", 50);
+
+		List<Boolean> resultados = emParalelo(200, i -> coordenador.emprestar(id, 1));
+
+		assertEquals(50, resultados.stream().filter(Boolean::booleanValue).count());
+		assertEquals(0, produtoRepository.findById(id).orElseThrow().getQuantidadeDisponivel());
+		assertEquals(0, coordenador.filasPendentes());
+	}
+
+	@Test
+	void produtosDiferentesNaoInterferemEntreSi() throws Exception {
+		Long mouse = persistirProduto("PAT-0001", 300);
+		Long teclado = persistirProduto("PAT-0002", 300);
+
+		List<Boolean> resultados = emParalelo(400, i -> coordenador.emprestar(i % 2 == 0 ? mouse : teclado, 1));
+
+		assertTrue(resultados.stream().allMatch(Boolean::booleanValue));
+		assertEquals(100, produtoRepository.findById(mouse).orElseThrow().getQuantidadeDisponivel());
+		assertEquals(100, produtoRepository.findById(teclado).orElseThrow().getQuantidadeDisponivel());
+	}
+
+	// Dispara as operações de uma vez (todas as threads esperam a largada) e devolve os resultados
+	private static List<Boolean> emParalelo(int operacoes, Operacao operacao) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch largada = new CountDownLatch(1);
+		try {
+			List<Future<Boolean>> futuros = new ArrayList<>();
+			for (int i = 0; i < operacoes; i++) {
+				int indice = i;
+				Callable<Boolean> tarefa = () -> {
+					largada.await();
+					return operacao.executar(indice);
+				};
+				futuros.add(executor.submit(tarefa));
+			}
+			largada.countDown();
+
+			List<Boolean> resultados = new ArrayList<>();
+			for (Future<Boolean> futuro : futuros) {
+				resultados.add(futuro.get(30, TimeUnit.SECONDS));
+			}
+			return resultados;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Long persistirProduto(String codigo, int quantidade) {
+		return persistirProduto(codigo, quantidade, quantidade);
+	}
+
+	private Long persistirProduto(String codigo, int total, int disponivel) {
+		Produto produto = new Produto("Produto " + codigo, codigo, categoria);
+		produto.setQuantidadeTotal(total);
+		produto.setQuantidadeDisponivel(disponivel);
+		return produtoRepository.save(produto).getId();
+	}
+
+	@FunctionalInterface
+	private interface Operacao {
+		boolean executar(int indice);
+	}
+}
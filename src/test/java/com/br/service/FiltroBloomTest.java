@@ -0,0 +1,36 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+	@Test
+	void valoresAdicionadosSempreSaoEncontrados() {
+		FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.adicionar("PAT-" + i);
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filtro.podeConter("PAT-" + i), "Falso negativo para PAT-" + i);
+		}
+	}
+
+	@Test
+	void falsosPositivosFicamProximosDaTaxaConfigurada() {
+		FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.adicionar("usuario" + i + "@empresa.com");
+		}
+
+		int falsosPositivos = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filtro.podeConter("outro" + i + "@empresa.com")) {
+				falsosPositivos++;
+			}
+		}
+		assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+	}
+}
@@ -0,0 +1,152 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.br.dto.ErroImportacao;
+import com.br.dto.ProgressoImportacao;
+import com.br.model.Categoria;
+import com.br.model.Produto;
+import com.br.repository.ProdutoRepository;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.sql.init.mode=never"
+})
+@Import({ ImportacaoProdutoServiceImpl.class, IndiceBuscaProdutos.class, ContadoresInventario.class,
+		CategoriaService.class, MarcaServiceImpl.class, LocalizacaoServiceImpl.class, CacheProdutos.class,
+		FiltrosExistencia.class,
+		SimpleMeterRegistry.class })
+class ImportacaoProdutoServiceImplTest {
+
+	@Autowired
+	private ImportacaoProdutoService importacaoProdutoService;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private FiltrosExistencia filtrosExistencia;
+
+	@Autowired
+	private CategoriaService categoriaService;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private boolean dadosConfirmados;
+
+	@BeforeEach
+	void setUp() {
+		Categoria categoria = entityManager.persist(new Categoria("Notebook", true));
+		Produto existente = new Produto("Notebook antigo", "PAT-0001", categoria);
+		entityManager.persistAndFlush(existente);
+		entityManager.clear();
+		// Gravado fora dos serviços: só entra nos filtros de Bloom pela reconstrução
+		filtrosExistencia.reconstruir();
+	}
+
+	// Dados confirmados por confirmarDados() não voltam no rollback do teste
+	@AfterEach
+	void limpar() {
+		if (dadosConfirmados) {
+			JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+			jdbc.update("DELETE FROM produtos");
+			jdbc.update("DELETE FROM categorias");
+		}
+	}
+
+	@Test
+	void importaLinhasValidasEReportaErrosPorLinha() throws Exception {
+		String csv = """
+				nome;codigo;categoria;quantidadeTotal;observacoes
+				Notebook Dell;PAT-0002;notebook;2;"Com carregador; mochila"
+				Notebook repetido;PAT-0001;Notebook;1;
+				Sem categoria;PAT-0003;Tablet;1;
+
+				Notebook Lenovo;PAT-0004;Notebook;abc;
+				Notebook HP;PAT-0002;Notebook;1;
+				""";
+		List<ProgressoImportacao> progressos = new ArrayList<>();
+
+		ProgressoImportacao resumo = importacaoProdutoService.importarCsv(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), progressos::add);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertTrue(resumo.concluido());
+		assertEquals(5, resumo.linhasProcessadas());
+		assertEquals(1, resumo.importados());
+		assertEquals(4, resumo.rejeitados());
+
+		List<Long> linhasRejeitadas = progressos.get(0).erros().stream().map(ErroImportacao::linha).sorted().toList();
+		assertEquals(List.of(3L, 4L, 6L, 7L), linhasRejeitadas);
+
+		Produto importado = produtoRepository.findByCodigo("PAT-0002").orElseThrow();
+		assertEquals(2, importado.getQuantidadeDisponivel());
+		assertEquals("Com carregador; mochila", importado.getObservacoes());
+	}
+
+	@Test
+	void codigoGravadoPorOutroProcessoNoMeioDaImportacaoRejeitaSoALinha() throws Exception {
+		// Sem a transação do teste: cada lote confirma na própria transação, como na API
+		confirmarDados();
+		// Gravada pelo serviço fora de transação: o registro em memória recarrega na hora
+		Categoria tablet = categoriaService.save(new Categoria("Tablet", true));
+		StringBuilder csv = new StringBuilder("nome;codigo;categoria\n");
+		for (int i = 0; i < 1_500; i++) {
+			csv.append("Tablet ").append(i).append(";PAT-").append(1_000 + i).append(";Tablet\n");
+		}
+		List<ProgressoImportacao> progressos = new ArrayList<>();
+
+		// Depois do primeiro lote, outra gravação (fora dos serviços, que o filtro de Bloom
+		// desconhece) leva o código de uma linha do segundo lote
+		ProgressoImportacao resumo = importacaoProdutoService.importarCsv(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), progresso -> {
+					if (progressos.isEmpty()) {
+						produtoRepository.save(new Produto("Tablet concorrente", "PAT-2200", tablet));
+					}
+					progressos.add(progresso);
+				});
+
+		assertEquals(3, progressos.size());
+		assertTrue(resumo.concluido());
+		assertEquals(1_500, resumo.linhasProcessadas());
+		assertEquals(1_499, resumo.importados());
+		assertEquals(1, resumo.rejeitados());
+		// O lote falha no INSERT e volta inteiro; linha a linha, a consulta de duplicidade acha o código
+		assertEquals(List.of(new ErroImportacao(1_202, "Código já existe: PAT-2200")),
+				progressos.get(1).erros());
+		assertEquals(1_501, produtoRepository.count());
+		assertEquals("Tablet concorrente", produtoRepository.findByCodigo("PAT-2200").orElseThrow().getNome());
+	}
+
+	private void confirmarDados() {
+		entityManager.flush();
+		TestTransaction.flagForCommit();
+		TestTransaction.end();
+		dadosConfirmados = true;
+	}
+}
@@ -0,0 +1,69 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.br.model.Produto;
+
+class IndiceBuscaProdutosTest {
+
+	private final IndiceBuscaProdutos indice = new IndiceBuscaProdutos(null, true);
+
+	@Test
+	void encontraPorTrechoEmQualquerCampoOrdenandoPorRelevancia() {
+		indice.atualizarTodos(List.of(
+				produto(1L, "Suporte para notebook", "PAT-0001", null, null),
+				produto(2L, "Notebook Dell", "PAT-0002", "SN-778", "Latitude 5420"),
+				produto(3L, "Mouse", "NOTEBOOK", null, null)));
+
+		assertEquals(List.of(3L, 2L, 1L), indice.buscar("Notebook", 10));
+		assertEquals(List.of(2L), indice.buscar("latitude", 10));
+		assertEquals(List.of(2L), indice.buscar("sn-7", 10));
+		assertEquals(List.of(3L, 2L), indice.buscar("notebook", 2));
+		assertTrue(indice.buscar("notebooks", 10).isEmpty());
+	}
+
+	@Test
+	void termoCurtoConfereTodosOsTextos() {
+		indice.atualizarTodos(List.of(
+				produto(1L, "Hub USB", "PAT-0001", null, null),
+				produto(2L, "Mouse", "PAT-0002", null, null)));
+
+		assertEquals(List.of(1L), indice.buscar("ub", 10));
+	}
+
+	@Test
+	void alteracaoEDesativacaoAtualizamOIndice() {
+		Produto produto = produto(1L, "Teclado", "PAT-0001", null, null);
+		indice.atualizar(produto);
+
+		produto.setNome("Monitor");
+		indice.atualizar(produto);
+		assertTrue(indice.buscar("teclado", 10).isEmpty());
+		assertEquals(List.of(1L), indice.buscar("monitor", 10));
+
+		produto.setAtivo(false);
+		indice.atualizar(produto);
+		assertTrue(indice.buscar("monitor", 10).isEmpty());
+
+		produto.setAtivo(true);
+		indice.atualizar(produto);
+		indice.remover(1L);
+		assertTrue(indice.buscar("pat", 10).isEmpty());
+	}
+
+	private Produto produto(Long id, String nome, String codigo, String numeroSerie, String modelo) {
+		Produto produto = new Produto();
+		produto.setId(id);
+		produto.setNome(nome);
+		produto.setCodigo(codigo);
+		produto.setNumeroSerie(numeroSerie);
+		produto.setModelo(modelo);
+		produto.setAtivo(true);
+		return produto;
+	}
+}
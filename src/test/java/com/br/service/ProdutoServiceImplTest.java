@@ -0,0 +1,392 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.br.dto.FiltroProduto;
+import com.br.dto.ItemEmprestimo;
+import com.br.dto.PaginaCursor;
+import com.br.dto.ProdutoResumo;
+import com.br.dto.TotaisInventario;
+import com.br.exception.ConflitoException;
+import com.br.exception.RegraNegocioException;
+import com.br.model.Categoria;
+import com.br.model.Localizacao;
+import com.br.model.Marca;
+import com.br.model.Produto;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.sql.init.mode=never",
+		"inventario.busca.trigram.habilitado=false"
+})
+@Import({ ProdutoServiceImpl.class, CoordenadorMovimentacao.class, RetentativaOtimista.class,
+		IndiceBuscaProdutos.class, ContadoresInventario.class, CacheProdutos.class, FiltrosExistencia.class,
+		SimpleMeterRegistry.class })
+class ProdutoServiceImplTest {
+
+	@Autowired
+	private ProdutoService produtoService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ContadoresInventario contadores;
+
+	@Autowired
+	private FiltrosExistencia filtrosExistencia;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private Statistics statistics;
+
+	private Long produtoId;
+
+	private Categoria categoria;
+
+	private boolean dadosConfirmados;
+
+	@BeforeEach
+	void setUp() {
+		categoria = entityManager.persist(new Categoria("Mouse", true));
+
+		Produto produto = new Produto("Mouse óptico", "PAT-0001", categoria);
+		produto.setQuantidadeTotal(5);
+		produto.setQuantidadeDisponivel(5);
+		produtoId = entityManager.persistAndFlush(produto).getId();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	// Dados confirmados por confirmarDados() não voltam no rollback do teste
+	@AfterEach
+	void limpar() {
+		if (dadosConfirmados) {
+			JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+			jdbc.update("DELETE FROM produtos");
+			jdbc.update("DELETE FROM categorias");
+		}
+	}
+
+	@Test
+	void produtoNovoEhPersistidoSemMerge() {
+		Produto produto = new Produto("Teclado", "PAT-0002", categoria);
+		produto.setQuantidadeTotal(1);
+
+		Produto salvo = produtoService.salvarProduto(produto);
+		entityManager.flush();
+
+		// merge devolveria uma cópia (e, com id atribuído, faria um SELECT antes do INSERT)
+		assertSame(produto, salvo);
+		assertEquals(0L, salvo.getVersao());
+	}
+
+	@Test
+	void atualizacaoComVersaoDesatualizadaEhRejeitada() {
+		Produto lidoPorA = produtoService.buscarPorId(produtoId).orElseThrow();
+		Produto lidoPorB = produtoService.buscarPorId(produtoId).orElseThrow();
+		entityManager.clear();
+
+		lidoPorA.setNome("Mouse sem fio");
+		produtoService.atualizarProduto(produtoId, lidoPorA);
+		entityManager.flush();
+		entityManager.clear();
+
+		lidoPorB.setQuantidadeTotal(10);
+		assertThrows(ConflitoException.class, () -> produtoService.atualizarProduto(produtoId, lidoPorB));
+		entityManager.clear();
+
+		Produto atual = produtoService.buscarPorId(produtoId).orElseThrow();
+		assertEquals("Mouse sem fio", atual.getNome());
+		assertEquals(5, atual.getQuantidadeTotal());
+		assertEquals(1L, atual.getVersao());
+	}
+
+	@Test
+	void totalMenorQueOsEmprestadosEhRejeitado() {
+		Produto comEmprestimos = entityManager.find(Produto.class, produtoId);
+		comEmprestimos.setQuantidadeDisponivel(2);
+		entityManager.flush();
+		entityManager.clear();
+
+		Produto pedido = produtoService.buscarPorId(produtoId).orElseThrow();
+		entityManager.clear();
+		pedido.setQuantidadeTotal(2);
+		RegraNegocioException erro = assertThrows(RegraNegocioException.class,
+				() -> produtoService.atualizarProduto(produtoId, pedido));
+		assertEquals("Quantidade total menor que a emprestada. Emprestados: 3, Total solicitado: 2", erro.getMessage());
+		entityManager.clear();
+
+		// No limite todos os itens ficam emprestados e nada sobra disponível
+		pedido.setQuantidadeTotal(3);
+		Produto atualizado = produtoService.atualizarProduto(produtoId, pedido);
+		assertEquals(3, atualizado.getQuantidadeTotal());
+		assertEquals(0, atualizado.getQuantidadeDisponivel());
+	}
+
+	@Test
+	void emprestimoUsaNoMaximoUmaLeituraEUmaEscrita() {
+		confirmarDados();
+		statistics.clear();
+
+		Produto produto = produtoService.registrarEmprestimo(produtoId, 2);
+
+		assertEquals(3, produto.getQuantidadeDisponivel());
+		assertTrue(statistics.getPrepareStatementCount() <= 2,
+				"Comandos SQL executados: " + statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void devolucaoUsaNoMaximoUmaLeituraEUmaEscrita() {
+		confirmarDados();
+		produtoService.registrarEmprestimo(produtoId, 2);
+		statistics.clear();
+
+		Produto produto = produtoService.registrarDevolucao(produtoId, 1);
+
+		assertEquals(4, produto.getQuantidadeDisponivel());
+		assertTrue(statistics.getPrepareStatementCount() <= 2,
+				"Comandos SQL executados: " + statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void emprestimoAcimaDoDisponivelNaoAlteraEstoque() {
+		confirmarDados();
+		Counter rejeitados = meterRegistry.counter("inventario.emprestimos.rejeitados", "motivo", "saldo_insuficiente");
+		double rejeitadosAntes = rejeitados.count();
+
+		RegraNegocioException erro = assertThrows(RegraNegocioException.class,
+				() -> produtoService.registrarEmprestimo(produtoId, 6));
+
+		assertTrue(erro.getMessage().startsWith("Disponibilidade insuficiente"));
+		// Rejeição esperada: sem stack trace
+		assertEquals(0, erro.getStackTrace().length);
+		assertEquals(rejeitadosAntes + 1, rejeitados.count());
+		assertEquals(5, produtoService.buscarPorId(produtoId).orElseThrow().getQuantidadeDisponivel());
+	}
+
+	@Test
+	void devolucaoAcimaDoTotalEhRejeitada() {
+		confirmarDados();
+		assertThrows(RegraNegocioException.class,
+				() -> produtoService.registrarDevolucao(produtoId, 1));
+	}
+
+	@Test
+	void emprestimoEmLoteAplicaTodosOsItens() {
+		Long carregadorId = persistirProduto("Carregador", "PAT-0002", 3);
+
+		List<Produto> produtos = produtoService.registrarEmprestimoEmLote(List.of(
+				new ItemEmprestimo(carregadorId, 1),
+				new ItemEmprestimo(produtoId, 2),
+				new ItemEmprestimo(produtoId, 1)));
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(2, produtos.size());
+		assertEquals(2, produtoService.buscarPorId(produtoId).orElseThrow().getQuantidadeDisponivel());
+		assertEquals(2, produtoService.buscarPorId(carregadorId).orElseThrow().getQuantidadeDisponivel());
+	}
+
+	@Test
+	void emprestimoEmLoteComItemSemSaldoNaoAlteraNenhumProduto() {
+		Long carregadorId = persistirProduto("Carregador", "PAT-0002", 1);
+
+		assertThrows(RegraNegocioException.class, () -> produtoService.registrarEmprestimoEmLote(List.of(
+				new ItemEmprestimo(produtoId, 2),
+				new ItemEmprestimo(carregadorId, 2))));
+		entityManager.clear();
+
+		assertEquals(5, produtoService.buscarPorId(produtoId).orElseThrow().getQuantidadeDisponivel());
+		assertEquals(1, produtoService.buscarPorId(carregadorId).orElseThrow().getQuantidadeDisponivel());
+	}
+
+	@Test
+	void buscaPorTermoTrataCuringasComoTextoERespeitaLimite() {
+		persistirProduto("Cabo HDMI 100%", "PAT-0002", 1);
+		persistirProduto("Cabo HDMI 2m", "PAT-0003", 1);
+		persistirProduto("Cabo USB", "PAT-0004", 1);
+
+		assertEquals(1, produtoService.buscarPorTermo("100%", null).size());
+		assertEquals(2, produtoService.buscarPorTermo("hdmi", null).size());
+		assertEquals(1, produtoService.buscarPorTermo("cabo", 1).size());
+		assertEquals(0, produtoService.buscarPorTermo("PAT_000", null).size());
+	}
+
+	@Test
+	void buscaPorModeloIgnoraMaiusculasEPaginaPorCursor() {
+		for (int i = 2; i <= 4; i++) {
+			Produto produto = new Produto("Notebook " + i, "PAT-000" + i, categoria);
+			produto.setModelo(i % 2 == 0 ? "Latitude 5420" : "LATITUDE 5420");
+			entityManager.persist(produto);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(3, produtoService.buscarPorModelo("latitude 5420").size());
+
+		PaginaCursor<ProdutoResumo> primeira = produtoService.buscarPorModeloPaginado("latitude 5420", null, 2);
+		PaginaCursor<ProdutoResumo> segunda = produtoService.buscarPorModeloPaginado("latitude 5420",
+				primeira.proximoCursor(), 2);
+		assertEquals(2, primeira.itens().size());
+		assertEquals(1, segunda.itens().size());
+		assertNull(segunda.proximoCursor());
+	}
+
+	@Test
+	void filtrosUsamIdsDasAssociacoesEIgnoramInativos() {
+		Categoria notebooks = entityManager.persist(new Categoria("Notebook", true));
+		Produto notebook = new Produto("Notebook", "PAT-0002", notebooks);
+		notebook.setEstadoConservacao("BOM");
+		entityManager.persist(notebook);
+		Produto inativo = new Produto("Notebook antigo", "PAT-0003", notebooks);
+		inativo.setAtivo(false);
+		entityManager.persist(inativo);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(List.of(produtoId), ids(produtoService.buscarPorCategoria(categoria.getId())));
+		assertEquals(List.of(notebook.getId()), ids(produtoService.buscarPorCategoria(notebooks.getId())));
+		assertEquals(List.of(notebook.getId()), ids(produtoService.buscarPorFiltros(
+				new FiltroProduto(notebooks.getId(), null, null, "BOM"))));
+		assertEquals(List.of(produtoId, notebook.getId()), ids(produtoService.buscarPorFiltros(
+				new FiltroProduto(null, null, null, null))));
+		assertTrue(produtoService.buscarPorFiltros(new FiltroProduto(categoria.getId(), null, null, "BOM")).isEmpty());
+	}
+
+	@Test
+	void listagemTrazNomesDasAssociacoesEmUmaUnicaConsulta() {
+		Marca marca = entityManager.persist(new Marca("Dell", null));
+		Localizacao sala = entityManager.persist(new Localizacao("Sala 101", null));
+		for (int i = 2; i <= 4; i++) {
+			Produto produto = new Produto("Monitor " + i, "PAT-000" + i, categoria);
+			produto.setMarca(marca);
+			produto.setLocalizacao(sala);
+			entityManager.persist(produto);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		List<ProdutoResumo> produtos = produtoService.listarAtivos();
+
+		assertEquals(4, produtos.size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(new ProdutoResumo(produtoId, "Mouse óptico", "PAT-0001", null, "Mouse", null, null, 5, 5,
+				null, true), produtos.get(0));
+		assertEquals("Dell", produtos.get(1).marca());
+		assertEquals("Sala 101", produtos.get(1).localizacao());
+	}
+
+	@Test
+	void detalheCarregaAsAssociacoesNaMesmaConsulta() {
+		Produto produto = produtoService.buscarPorId(produtoId).orElseThrow();
+
+		assertTrue(Hibernate.isInitialized(produto.getCategoria()));
+		assertEquals("Mouse", produto.getCategoria().getNome());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void codigoInexistenteEhRespondidoPeloFiltroSemConsultarOBanco() {
+		// O produto do setUp foi gravado fora do serviço: entra no filtro pela reconstrução
+		filtrosExistencia.reconstruir();
+		statistics.clear();
+
+		assertFalse(produtoService.existeCodigo("PAT-9999"));
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertTrue(produtoService.existeCodigo("PAT-0001"));
+	}
+
+	@Test
+	void totaisDoInventarioAcompanhamMovimentacoesSemConsultarOBanco() {
+		Long carregadorId = persistirProduto("Carregador", "PAT-0002", 3);
+		confirmarDados();
+		contadores.recarregar();
+		assertEquals(new TotaisInventario(8, 8, 0), contadores.totais());
+		assertEquals(Map.of("Mouse", 2L), contadores.produtosPorCategoria());
+
+		// Cada operação confirma a própria transação e aplica o delta no callback pós-commit
+		produtoService.registrarEmprestimo(produtoId, 2);
+		produtoService.registrarDevolucao(produtoId, 1);
+		produtoService.desativarProduto(carregadorId);
+		statistics.clear();
+
+		TotaisInventario totais = produtoService.obterContagemTotalItens();
+		Map<String, Long> porCategoria = produtoService.obterEstatisticasPorCategoria();
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		TotaisInventario banco = jdbc.queryForObject("""
+				SELECT COALESCE(SUM(quantidade_total), 0), COALESCE(SUM(quantidade_disponivel), 0)
+				FROM produtos WHERE ativo = TRUE""",
+				(rs, linha) -> new TotaisInventario(rs.getLong(1), rs.getLong(2), rs.getLong(1) - rs.getLong(2)));
+		long ativosMouse = jdbc.queryForObject("""
+				SELECT COUNT(*) FROM produtos p JOIN categorias c ON c.id = p.categoria_id
+				WHERE p.ativo = TRUE AND c.nome = 'Mouse'""", Long.class);
+		assertEquals(banco, totais);
+		assertEquals(Map.of("Mouse", ativosMouse), porCategoria);
+		assertEquals(new TotaisInventario(5, 4, 1), totais);
+	}
+
+	// Encerra a transação do teste com commit: as movimentações rodam em transação própria
+	// e só enxergam o que já foi confirmado
+	private void confirmarDados() {
+		entityManager.flush();
+		TestTransaction.flagForCommit();
+		TestTransaction.end();
+		dadosConfirmados = true;
+	}
+
+	private static List<Long> ids(List<ProdutoResumo> produtos) {
+		return produtos.stream().map(ProdutoResumo::id).toList();
+	}
+
+	private Long persistirProduto(String nome, String codigo, int quantidade) {
+		Produto produto = new Produto(nome, codigo, categoria);
+		produto.setQuantidadeTotal(quantidade);
+		produto.setQuantidadeDisponivel(quantidade);
+		Long id = entityManager.persistAndFlush(produto).getId();
+		entityManager.clear();
+		return id;
+	}
+}
@@ -0,0 +1,61 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.br.model.Marca;
+
+class RegistroReferenciaTest {
+
+	private final List<Marca> tabela = new ArrayList<>();
+
+	private final AtomicInteger cargas = new AtomicInteger();
+
+	private final RegistroReferencia<Marca> registro = new RegistroReferencia<>(() -> {
+		cargas.incrementAndGet();
+		return List.copyOf(tabela);
+	}, Marca::getId, Marca::getNome, Marca::getAtivo);
+
+	@Test
+	void carregaUmaVezEAtendeConsultasDoInstantaneo() {
+		tabela.add(marca(1L, "Logitech", true));
+		tabela.add(marca(2L, "Dell", true));
+		tabela.add(marca(3L, "Acer", false));
+
+		assertEquals("Dell", registro.porId(2L).orElseThrow().getNome());
+		assertSame(registro.porId(1L).orElseThrow(), registro.porNome("Logitech").orElseThrow());
+		assertEquals(List.of("Dell", "Logitech"), registro.ativos().stream().map(Marca::getNome).toList());
+		assertEquals(List.of("Acer", "Dell", "Logitech"), registro.todos().stream().map(Marca::getNome).toList());
+		assertTrue(registro.porId(99L).isEmpty());
+		assertEquals(1, cargas.get());
+	}
+
+	@Test
+	void recargaTrocaOInstantaneoInteiro() {
+		tabela.add(marca(1L, "Logitech", true));
+		List<Marca> ativosAntes = registro.ativos();
+
+		tabela.add(marca(2L, "Dell", true));
+		registro.recarregarAposCommit();
+
+		assertEquals(1, ativosAntes.size());
+		assertEquals(2, registro.ativos().size());
+		assertThrows(UnsupportedOperationException.class, () -> registro.ativos().add(marca(3L, "HP", true)));
+	}
+
+	private Marca marca(Long id, String nome, boolean ativo) {
+		Marca marca = new Marca();
+		marca.setId(id);
+		marca.setNome(nome);
+		marca.setAtivo(ativo);
+		return marca;
+	}
+}
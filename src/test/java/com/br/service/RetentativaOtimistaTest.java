@@ -0,0 +1,81 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.br.model.Produto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RetentativaOtimistaTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RetentativaOtimista retentativa = new RetentativaOtimista(new TransacaoFalsa(), meterRegistry, 3, 1);
+
+	@Test
+	void repeteAteSucessoEContaConflitos() {
+		AtomicInteger tentativas = new AtomicInteger();
+
+		String resultado = retentativa.executar("teste", () -> {
+			if (tentativas.incrementAndGet() < 3) {
+				throw new ObjectOptimisticLockingFailureException(Produto.class, 1L);
+			}
+			return "ok";
+		});
+
+		assertEquals("ok", resultado);
+		assertEquals(2, meterRegistry.counter("inventario.otimista.conflitos", "operacao", "teste").count());
+		assertEquals(2, meterRegistry.counter("inventario.otimista.retentativas", "operacao", "teste").count());
+	}
+
+	@Test
+	void desisteAposLimiteDeTentativas() {
+		AtomicInteger tentativas = new AtomicInteger();
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> retentativa.executar("teste", () -> {
+			tentativas.incrementAndGet();
+			throw new ObjectOptimisticLockingFailureException(Produto.class, 1L);
+		}));
+
+		assertEquals(3, tentativas.get());
+		assertEquals(1, meterRegistry.counter("inventario.otimista.esgotadas", "operacao", "teste").count());
+	}
+
+	@Test
+	void naoRepeteErrosDeNegocio() {
+		AtomicInteger tentativas = new AtomicInteger();
+
+		assertThrows(IllegalArgumentException.class, () -> retentativa.executar("teste", () -> {
+			tentativas.incrementAndGet();
+			throw new IllegalArgumentException("Código já existe");
+		}));
+
+		assertEquals(1, tentativas.get());
+	}
+
+	private static class TransacaoFalsa implements PlatformTransactionManager {
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.br.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.br.dto.PaginaCursor;
+import com.br.dto.PaginaResultado;
+import com.br.dto.TotaisUsuarios;
+import com.br.model.Usuario;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.sql.init.mode=never",
+		"inventario.busca.trigram.habilitado=false"
+})
+@Import({ UsuarioServiceImpl.class, RetentativaOtimista.class, FiltrosExistencia.class, SimpleMeterRegistry.class })
+class UsuarioServiceImplTest {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		entityManager.persist(new Usuario("Ana Souza", "ana.souza@empresa.com", "M-1001"));
+		entityManager.persist(new Usuario("Bruno Lima", "bruno@empresa.com", "M-1002"));
+		entityManager.persist(new Usuario("Carla Mendes", "carla@empresa.com", "M-2001"));
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void buscaPorPrefixoDeEmailOuMatriculaEPorTrechoDoNome() {
+		assertEquals(List.of("Bruno Lima"), nomes(usuarioService.buscarPorTermo("BRUNO@", null)));
+		assertEquals(List.of("Ana Souza", "Bruno Lima"), nomes(usuarioService.buscarPorTermo("m-100", null)));
+		assertEquals(List.of("Carla Mendes"), nomes(usuarioService.buscarPorTermo("mendes", null)));
+		// email/matrícula só por prefixo
+		assertTrue(usuarioService.buscarPorTermo("empresa.com", null).isEmpty());
+	}
+
+	@Test
+	void buscaPaginadaIndicaProximaPagina() {
+		PaginaResultado<Usuario> primeira = usuarioService.buscarPorTermoPaginado("m-", 0, 2);
+		PaginaResultado<Usuario> segunda = usuarioService.buscarPorTermoPaginado("m-", 1, 2);
+
+		assertEquals(2, primeira.itens().size());
+		assertTrue(primeira.temProxima());
+		assertEquals(List.of("Carla Mendes"), nomes(segunda.itens()));
+		assertFalse(segunda.temProxima());
+	}
+
+	@Test
+	void buscaPorCargoIgnoraMaiusculasInclusiveAcentuadasEPaginaPorCursor() {
+		persistirComCargo("Diego Alves", "diego@empresa.com", "M-3001", "Estagiário");
+		persistirComCargo("Elisa Rocha", "elisa@empresa.com", "M-3002", "ESTAGIÁRIO");
+		persistirComCargo("Fábio Nunes", "fabio@empresa.com", "M-3003", "estagiário");
+		persistirComCargo("Gabriela Dias", "gabriela@empresa.com", "M-3004", "Estagiário de TI");
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(List.of("Diego Alves", "Elisa Rocha", "Fábio Nunes"),
+				nomes(usuarioService.buscarPorCargo("ESTAGIÁRIO")));
+		// Comparação exata depois do lower: sem acento não encontra, e trecho do cargo também não
+		assertTrue(usuarioService.buscarPorCargo("estagiario").isEmpty());
+		assertTrue(usuarioService.buscarPorCargo("estag").isEmpty());
+
+		PaginaCursor<Usuario> primeira = usuarioService.buscarPorCargoPaginado("estagiário", null, 2);
+		PaginaCursor<Usuario> segunda = usuarioService.buscarPorCargoPaginado("estagiário",
+				primeira.proximoCursor(), 2);
+		assertEquals(List.of("Diego Alves", "Elisa Rocha"), nomes(primeira.itens()));
+		assertEquals(List.of("Fábio Nunes"), nomes(segunda.itens()));
+		assertNull(segunda.proximoCursor());
+	}
+
+	@Test
+	void totaisDeUsuariosPorSituacao() {
+		Usuario inativo = new Usuario("Diego Alves", "diego@empresa.com", "M-3001");
+		inativo.setAtivo(false);
+		entityManager.persistAndFlush(inativo);
+
+		assertEquals(new TotaisUsuarios(4, 3, 1), usuarioService.obterContagemTotalUsuarios());
+	}
+
+	private void persistirComCargo(String nome, String email, String matricula, String cargo) {
+		Usuario usuario = new Usuario(nome, email, matricula);
+		usuario.setCargo(cargo);
+		entityManager.persist(usuario);
+	}
+
+	private List<String> nomes(List<Usuario> usuarios) {
+		return usuarios.stream().map(Usuario::getNome).toList();
+	}
+}